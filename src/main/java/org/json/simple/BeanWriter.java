@@ -0,0 +1,206 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The readable properties of a class, used by JSONBeans.SERIALIZER to write instances of it as JSON
+ * objects without copying them into a JSONObject first. A property is a public getter getXxx() or
+ * isXxx() (for boolean), or a public field that is neither static nor transient; a getter wins over a
+ * field of the same name. The properties are written in the order of their names, and enum values
+ * by their names.
+ * <p>
+ * Writers are built once per class with MethodHandles, and cached in a ClassValue.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class BeanWriter {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	/** beans nested deeper than this are taken for a cycle through getters that create new beans */
+	private static final int MAX_DEPTH = 1000;
+
+	private static final ClassValue WRITERS = new ClassValue(){
+		protected Object computeValue(Class type){
+			return new BeanWriter(properties(type));
+		}
+	};
+
+	/** the beans being written by each thread, to detect cycles */
+	private static final ThreadLocal PATHS = new ThreadLocal(){
+		protected Object initialValue(){
+			return new Path();
+		}
+	};
+
+	/**
+	 * Writes a bean with the writer of its class, and an enum as its name.
+	 */
+	static final JSONSerializer SERIALIZER = new JSONSerializer(){
+		public void writeJSONString(Object value, Writer out) throws IOException{
+			if(value instanceof Enum)
+				writeName((Enum)value, out);
+			else
+				((BeanWriter)WRITERS.get(value.getClass())).write(value, out);
+		}
+	};
+
+	/** the names of the properties, rendered as "name": */
+	private final char[][] names;
+	/** (Object)Object */
+	private final MethodHandle[] getters;
+
+	private BeanWriter(Map properties){
+		names = new char[properties.size()][];
+		getters = new MethodHandle[properties.size()];
+		Iterator iter = properties.entrySet().iterator();
+		for(int i = 0; iter.hasNext(); i++){
+			Map.Entry entry = (Map.Entry)iter.next();
+			names[i] = KeyFragments.render((String)entry.getKey());
+			getters[i] = (MethodHandle)entry.getValue();
+		}
+	}
+
+	private static Map properties(Class type){
+		Map properties = new TreeMap();
+		Field[] fields = type.getFields();
+		for(int i = 0; i < fields.length; i++){
+			Field f = fields[i];
+			int modifiers = f.getModifiers();
+			if(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+				continue;
+			try{
+				setAccessible(f);
+				properties.put(f.getName(), LOOKUP.unreflectGetter(f).asType(GETTER_TYPE));
+			}
+			catch(IllegalAccessException e){
+			}
+		}
+		Method[] methods = type.getMethods();
+		for(int i = 0; i < methods.length; i++){
+			Method m = methods[i];
+			String name = m.getName();
+			Class returnType = m.getReturnType();
+			if(Modifier.isStatic(m.getModifiers()) || m.getParameterTypes().length != 0 || returnType == void.class
+					|| m.isBridge() || m.getDeclaringClass() == Object.class)
+				continue;
+			String property;
+			if(name.length() > 3 && name.startsWith("get"))
+				property = name.substring(3);
+			else if(name.length() > 2 && name.startsWith("is") && returnType == boolean.class)
+				property = name.substring(2);
+			else
+				continue;
+			try{
+				setAccessible(m);
+				properties.put(propertyName(property), LOOKUP.unreflect(m).asType(GETTER_TYPE));
+			}
+			catch(IllegalAccessException e){
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * The name of a property, from a getter without its prefix: "Name" becomes "name", but "URL" stays
+	 * "URL", like in java.beans.Introspector. BeanBinder in org.json.simple.parser uses the same rule.
+	 */
+	private static String propertyName(String s){
+		if(s.length() > 1 && Character.isUpperCase(s.charAt(1)) && Character.isUpperCase(s.charAt(0)))
+			return s;
+		return Character.toLowerCase(s.charAt(0)) + s.substring(1);
+	}
+
+	/**
+	 * Makes a public member of a class that is not public itself accessible, where the platform allows it.
+	 */
+	private static void setAccessible(AccessibleObject member){
+		try{
+			member.setAccessible(true);
+		}
+		catch(RuntimeException e){
+		}
+	}
+
+	private void write(Object bean, Writer out) throws IOException{
+		Path path = (Path)PATHS.get();
+		path.push(bean);
+		try{
+			out.write('{');
+			for(int i = 0; i < names.length; i++){
+				if(i > 0)
+					out.write(',');
+				out.write(names[i], 0, names[i].length);
+				Object value;
+				try{
+					value = (Object)getters[i].invokeExact(bean);
+				}
+				catch(RuntimeException e){
+					throw e;
+				}
+				catch(Error e){
+					throw e;
+				}
+				catch(Throwable t){
+					throw new UndeclaredThrowableException(t);
+				}
+				if(value instanceof Enum)
+					writeName((Enum)value, out);
+				else
+					JSONValue.writeJSONString(value, out);
+			}
+			out.write('}');
+		}
+		finally{
+			path.pop();
+		}
+	}
+
+	/**
+	 * Writes an enum as its name, which is what JSONParser.parse(Reader, Class) binds it by,
+	 * rather than its toString() like JSONValue.
+	 */
+	private static void writeName(Enum value, Writer out) throws IOException{
+		out.write('\"');
+		JSONValue.escape(value.name(), out);
+		out.write('\"');
+	}
+
+	/**
+	 * The beans being written, outermost first.
+	 */
+	private static final class Path {
+		private Object[] beans = new Object[16];
+		private int depth = 0;
+
+		void push(Object bean){
+			for(int i = 0; i < depth; i++){
+				if(beans[i] == bean)
+					throw new IllegalArgumentException("Cycle in the properties of " + bean.getClass().getName() + ", a bean contains itself.");
+			}
+			if(depth == MAX_DEPTH)
+				throw new IllegalArgumentException("Beans nested deeper than " + MAX_DEPTH + ", in a " + bean.getClass().getName() + ".");
+			if(depth == beans.length){
+				Object[] newBeans = new Object[depth * 2];
+				System.arraycopy(beans, 0, newBeans, 0, depth);
+				beans = newBeans;
+			}
+			beans[depth++] = bean;
+		}
+
+		void pop(){
+			beans[--depth] = null;
+		}
+	}
+}
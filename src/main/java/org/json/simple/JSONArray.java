@@ -46,6 +46,13 @@ public class JSONArray extends ArrayList implements JSONAware, JSONStreamAware {
      * @param out
      */
 	public static void writeJSONString(Collection collection, Writer out) throws IOException{
+		if(MeteredWriter.isNeeded(out)){
+			MeteredWriter metered = new MeteredWriter(out, collection);
+			writeJSONString(collection, metered);
+			metered.done();
+			return;
+		}
+		
 		if(collection == null){
 			out.write("null");
 			return;
@@ -104,11 +111,11 @@ public class JSONArray extends ArrayList implements JSONAware, JSONStreamAware {
 			out.write("[]");
 		} else {
 			out.write("[");
-			out.write(String.valueOf(array[0]));
+			NumberWriter.write(array[0], out);
 			
 			for(int i = 1; i < array.length; i++){
 				out.write(",");
-				out.write(String.valueOf(array[i]));
+				NumberWriter.write(array[i], out);
 			}
 			
 			out.write("]");
@@ -134,11 +141,11 @@ public class JSONArray extends ArrayList implements JSONAware, JSONStreamAware {
 			out.write("[]");
 		} else {
 			out.write("[");
-			out.write(String.valueOf(array[0]));
+			NumberWriter.write(array[0], out);
 			
 			for(int i = 1; i < array.length; i++){
 				out.write(",");
-				out.write(String.valueOf(array[i]));
+				NumberWriter.write(array[i], out);
 			}
 			
 			out.write("]");
@@ -164,11 +171,11 @@ public class JSONArray extends ArrayList implements JSONAware, JSONStreamAware {
 			out.write("[]");
 		} else {
 			out.write("[");
-			out.write(String.valueOf(array[0]));
+			NumberWriter.write(array[0], out);
 			
 			for(int i = 1; i < array.length; i++){
 				out.write(",");
-				out.write(String.valueOf(array[i]));
+				NumberWriter.write(array[i], out);
 			}
 			
 			out.write("]");
@@ -194,11 +201,11 @@ public class JSONArray extends ArrayList implements JSONAware, JSONStreamAware {
 			out.write("[]");
 		} else {
 			out.write("[");
-			out.write(String.valueOf(array[0]));
+			NumberWriter.write(array[0], out);
 			
 			for(int i = 1; i < array.length; i++){
 				out.write(",");
-				out.write(String.valueOf(array[i]));
+				NumberWriter.write(array[i], out);
 			}
 			
 			out.write("]");
@@ -224,11 +231,11 @@ public class JSONArray extends ArrayList implements JSONAware, JSONStreamAware {
 			out.write("[]");
 		} else {
 			out.write("[");
-			out.write(String.valueOf(array[0]));
+			NumberWriter.write(array[0], out);
 			
 			for(int i = 1; i < array.length; i++){
 				out.write(",");
-				out.write(String.valueOf(array[i]));
+				NumberWriter.write(array[i], out);
 			}
 			
 			out.write("]");
@@ -254,11 +261,11 @@ public class JSONArray extends ArrayList implements JSONAware, JSONStreamAware {
 			out.write("[]");
 		} else {
 			out.write("[");
-			out.write(String.valueOf(array[0]));
+			NumberWriter.write(array[0], out);
 			
 			for(int i = 1; i < array.length; i++){
 				out.write(",");
-				out.write(String.valueOf(array[i]));
+				NumberWriter.write(array[i], out);
 			}
 			
 			out.write("]");
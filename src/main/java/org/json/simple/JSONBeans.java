@@ -0,0 +1,32 @@
+package org.json.simple;
+
+/**
+ * Java beans as JSON objects. JSONValue writes objects of other classes with toString(), unless
+ * SERIALIZER is registered for their class, a superclass or an interface of it:
+ * <pre>
+ * JSONValue.registerSerializer(Order.class, JSONBeans.SERIALIZER);
+ * </pre>
+ * Then an Order is written as a JSON object of its public getters getXxx() and isXxx() (for boolean),
+ * and public fields that are neither static nor transient, in the order of their names. This is the
+ * counterpart of JSONParser.parse(Reader, Class), which sets the properties of the same names.
+ * <p>
+ * Enum properties are written by their names, which the parser binds them by, rather than by their
+ * toString() like JSONValue writes enums. Register SERIALIZER for Enum.class to write all enums by
+ * their names, also in collections.
+ *
+ * @see org.json.simple.JSONValue#registerSerializer(Class, JSONSerializer)
+ * @see org.json.simple.parser.JSONParser#parse(java.io.Reader, Class)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public final class JSONBeans {
+	/**
+	 * Writes a bean as a JSON object of its readable properties, for the class of the bean itself,
+	 * and an enum as its name. A bean that is its own property, directly or not, is an
+	 * IllegalArgumentException.
+	 */
+	public static final JSONSerializer SERIALIZER = BeanWriter.SERIALIZER;
+
+	private JSONBeans(){
+	}
+}
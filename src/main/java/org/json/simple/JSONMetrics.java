@@ -0,0 +1,255 @@
+package org.json.simple;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import org.json.simple.parser.MetricsBridge;
+import org.json.simple.parser.ParseException;
+
+/**
+ * Counters of the JSON text parsed by JSONParser and written by JSONValue, JSONObject and JSONArray:
+ * documents, chars and bytes, tokens by type, the maximum depth, latency histograms and parse errors
+ * by type. They are published as the MXBean "org.json.simple:type=JSONMetrics", and every document
+ * is reported to the registered JSONMetricsListeners as well.
+ * <p>
+ * Metrics are enabled with the system property org.json.simple.metrics=true. They are read once into
+ * the constant ENABLED, so when disabled the JIT removes the instrumentation altogether.
+ * <p>
+ * Only the parser and the writers report to the counters; JSONParser does so through MetricsBridge.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public final class JSONMetrics implements JSONMetricsMXBean {
+	public static final boolean ENABLED = Boolean.getBoolean("org.json.simple.metrics");
+
+	private static final String[] TOKEN_NAMES = {"VALUE", "LEFT BRACE", "RIGHT BRACE", "LEFT SQUARE", "RIGHT SQUARE", "COMMA", "COLON"};
+	private static final String[] ERROR_NAMES = {"UNEXPECTED CHAR", "UNEXPECTED TOKEN", "UNEXPECTED EXCEPTION", "LIMIT EXCEEDED"};
+	private static final int BUCKETS = 40;
+
+	private static final JSONMetrics INSTANCE = new JSONMetrics();
+	private static volatile JSONMetricsListener[] listeners = new JSONMetricsListener[0];
+
+	static{
+		MetricsBridge.install(new Recorder());
+		if(ENABLED){
+			try{
+				ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName("org.json.simple:type=JSONMetrics"));
+			}
+			catch(Exception e){
+				// Already registered by another class loader, or no management: the counters still work.
+			}
+		}
+	}
+
+	private final LongAdder documentsParsed = new LongAdder();
+	private final LongAdder charsParsed = new LongAdder();
+	private final LongAdder bytesParsed = new LongAdder();
+	private final LongAdder parseNanos = new LongAdder();
+	private final LongAdder[] parseLatency = adders(BUCKETS);
+	private final LongAdder[] tokens = adders(TOKEN_NAMES.length);
+	private final AtomicInteger maxDepth = new AtomicInteger();
+	private final LongAdder[] errors = adders(ERROR_NAMES.length);
+	private final LongAdder documentsWritten = new LongAdder();
+	private final LongAdder charsWritten = new LongAdder();
+	private final LongAdder writeNanos = new LongAdder();
+	private final LongAdder[] writeLatency = adders(BUCKETS);
+
+	private JSONMetrics(){
+	}
+
+	/**
+	 * @return The counters of this class loader.
+	 */
+	public static JSONMetrics getInstance(){
+		return INSTANCE;
+	}
+
+	/**
+	 * Adds a listener, which is only called when ENABLED is set.
+	 */
+	public static synchronized void addListener(JSONMetricsListener listener){
+		JSONMetricsListener[] newListeners = new JSONMetricsListener[listeners.length + 1];
+		System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+		newListeners[listeners.length] = listener;
+		listeners = newListeners;
+	}
+
+	public static synchronized void removeListener(JSONMetricsListener listener){
+		for(int i = 0; i < listeners.length; i++){
+			if(listeners[i] == listener){
+				JSONMetricsListener[] newListeners = new JSONMetricsListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, i);
+				System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+				listeners = newListeners;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Reports a written document; called by MeteredWriter.
+	 */
+	static void reportWritten(long length, long nanos){
+		INSTANCE.written(length, nanos);
+		JSONMetricsListener[] l = listeners;
+		for(int i = 0; i < l.length; i++)
+			l[i].written(length, nanos);
+	}
+
+	/**
+	 * Receives the reports of JSONParser through MetricsBridge, and passes them on to the listeners.
+	 */
+	private static final class Recorder implements JSONMetricsListener {
+		public void parsed(long length, boolean bytes, int[] tokens, int maxDepth, long nanos){
+			INSTANCE.parsed(length, bytes, tokens, maxDepth, nanos);
+			JSONMetricsListener[] l = listeners;
+			// the array is reused by the parser
+			for(int i = 0; i < l.length; i++)
+				l[i].parsed(length, bytes, (int[])tokens.clone(), maxDepth, nanos);
+		}
+
+		public void parseFailed(ParseException e, long nanos){
+			INSTANCE.parseFailed(e, nanos);
+			JSONMetricsListener[] l = listeners;
+			for(int i = 0; i < l.length; i++)
+				l[i].parseFailed(e, nanos);
+		}
+
+		public void written(long length, long nanos){
+			reportWritten(length, nanos);
+		}
+	}
+
+	private void parsed(long length, boolean bytes, int[] tokens, int maxDepth, long nanos){
+		documentsParsed.increment();
+		(bytes ? bytesParsed : charsParsed).add(length);
+		parseNanos.add(nanos);
+		parseLatency[bucket(nanos)].increment();
+		for(int i = 0; i < this.tokens.length; i++){
+			if(tokens[i] != 0)
+				this.tokens[i].add(tokens[i]);
+		}
+		int max = this.maxDepth.get();
+		while(maxDepth > max && !this.maxDepth.compareAndSet(max, maxDepth))
+			max = this.maxDepth.get();
+	}
+
+	private void parseFailed(ParseException e, long nanos){
+		int type = e.getErrorType();
+		if(type >= 0 && type < errors.length)
+			errors[type].increment();
+	}
+
+	private void written(long length, long nanos){
+		documentsWritten.increment();
+		charsWritten.add(length);
+		writeNanos.add(nanos);
+		writeLatency[bucket(nanos)].increment();
+	}
+
+	public long getDocumentsParsed(){
+		return documentsParsed.sum();
+	}
+
+	public long getCharsParsed(){
+		return charsParsed.sum();
+	}
+
+	public long getBytesParsed(){
+		return bytesParsed.sum();
+	}
+
+	public long getParseNanos(){
+		return parseNanos.sum();
+	}
+
+	public long[] getParseLatencyHistogram(){
+		return sums(parseLatency);
+	}
+
+	public Map<String, Long> getTokenCounts(){
+		return map(TOKEN_NAMES, tokens);
+	}
+
+	public int getMaxDepth(){
+		return maxDepth.get();
+	}
+
+	public long getParseErrors(){
+		long sum = 0;
+		for(int i = 0; i < errors.length; i++)
+			sum += errors[i].sum();
+		return sum;
+	}
+
+	public Map<String, Long> getParseErrorCounts(){
+		return map(ERROR_NAMES, errors);
+	}
+
+	public long getDocumentsWritten(){
+		return documentsWritten.sum();
+	}
+
+	public long getCharsWritten(){
+		return charsWritten.sum();
+	}
+
+	public long getWriteNanos(){
+		return writeNanos.sum();
+	}
+
+	public long[] getWriteLatencyHistogram(){
+		return sums(writeLatency);
+	}
+
+	public void reset(){
+		documentsParsed.reset();
+		charsParsed.reset();
+		bytesParsed.reset();
+		parseNanos.reset();
+		reset(parseLatency);
+		reset(tokens);
+		maxDepth.set(0);
+		reset(errors);
+		documentsWritten.reset();
+		charsWritten.reset();
+		writeNanos.reset();
+		reset(writeLatency);
+	}
+
+	private static int bucket(long nanos){
+		int bucket = 63 - Long.numberOfLeadingZeros(nanos | 1);
+		return bucket < BUCKETS ? bucket : BUCKETS - 1;
+	}
+
+	private static LongAdder[] adders(int n){
+		LongAdder[] adders = new LongAdder[n];
+		for(int i = 0; i < n; i++)
+			adders[i] = new LongAdder();
+		return adders;
+	}
+
+	private static long[] sums(LongAdder[] adders){
+		long[] sums = new long[adders.length];
+		for(int i = 0; i < adders.length; i++)
+			sums[i] = adders[i].sum();
+		return sums;
+	}
+
+	private static Map<String, Long> map(String[] names, LongAdder[] adders){
+		Map<String, Long> map = new LinkedHashMap<String, Long>();
+		for(int i = 0; i < names.length; i++)
+			map.put(names[i], Long.valueOf(adders[i].sum()));
+		return map;
+	}
+
+	private static void reset(LongAdder[] adders){
+		for(int i = 0; i < adders.length; i++)
+			adders[i].reset();
+	}
+}
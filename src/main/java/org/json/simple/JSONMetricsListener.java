@@ -0,0 +1,41 @@
+package org.json.simple;
+
+import org.json.simple.parser.ParseException;
+
+/**
+ * Receives an event for every JSON document that is parsed or written, when JSONMetrics.ENABLED is set.
+ * Listeners are called on the parsing or writing thread, so they should be quick and must be thread-safe.
+ *
+ * @see org.json.simple.JSONMetrics#addListener(JSONMetricsListener)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public interface JSONMetricsListener {
+	/**
+	 * A document has been parsed.
+	 *
+	 * @param length - The length of the document, in chars, or in bytes for UTF-8 input.
+	 * @param bytes - Whether the input was UTF-8 encoded bytes.
+	 * @param tokens - The number of tokens by type, indexed by Yytoken.TYPE_VALUE to Yytoken.TYPE_COLON,
+	 * 	in an array of the listener's own.
+	 * @param maxDepth - The maximum nesting depth of objects and arrays.
+	 * @param nanos - The time taken.
+	 */
+	void parsed(long length, boolean bytes, int[] tokens, int maxDepth, long nanos);
+
+	/**
+	 * Parsing a document has failed.
+	 *
+	 * @param e - The error, see ParseException.getErrorType().
+	 * @param nanos - The time taken up to the error.
+	 */
+	void parseFailed(ParseException e, long nanos);
+
+	/**
+	 * A document has been written by JSONValue, JSONObject or JSONArray.
+	 *
+	 * @param length - The length of the JSON text, in chars.
+	 * @param nanos - The time taken.
+	 */
+	void written(long length, long nanos);
+}
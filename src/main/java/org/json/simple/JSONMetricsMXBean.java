@@ -0,0 +1,50 @@
+package org.json.simple;
+
+import java.util.Map;
+
+/**
+ * The management interface of JSONMetrics, registered as "org.json.simple:type=JSONMetrics"
+ * when JSONMetrics.ENABLED is set.
+ * <p>
+ * Latency histograms have one bucket per power of two: bucket i counts the documents that took
+ * from 2^i to 2^(i+1)-1 nanoseconds, and the last bucket counts everything slower.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public interface JSONMetricsMXBean {
+	long getDocumentsParsed();
+
+	/** the length of the documents parsed from text */
+	long getCharsParsed();
+
+	/** the length of the documents parsed from UTF-8 input */
+	long getBytesParsed();
+
+	long getParseNanos();
+
+	long[] getParseLatencyHistogram();
+
+	/** the number of tokens by type: VALUE, LEFT BRACE, RIGHT BRACE, LEFT SQUARE, RIGHT SQUARE, COMMA and COLON */
+	Map<String, Long> getTokenCounts();
+
+	/** the maximum nesting depth of all documents parsed */
+	int getMaxDepth();
+
+	long getParseErrors();
+
+	/** the number of parse errors by ParseException error type */
+	Map<String, Long> getParseErrorCounts();
+
+	long getDocumentsWritten();
+
+	long getCharsWritten();
+
+	long getWriteNanos();
+
+	long[] getWriteLatencyHistogram();
+
+	/**
+	 * Sets all counters back to zero.
+	 */
+	void reset();
+}
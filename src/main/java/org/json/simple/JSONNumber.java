@@ -0,0 +1,103 @@
+package org.json.simple;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A JSON number kept as its text. The text is converted the first time a numeric value is asked
+ * for, and written back unchanged, so numbers that are only passed through are never converted
+ * and never lose precision.
+ *
+ * @see org.json.simple.parser.JSONParser#NUMBER_LAZY
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONNumber extends Number implements JSONAware {
+	private static final long serialVersionUID = 4188392452475936714L;
+
+	private final String text;
+	/** java.lang.Long, java.math.BigInteger or java.lang.Double, once converted */
+	private transient Number value;
+
+	/**
+	 * @param text - A JSON number, for example "-12.5e3". It is not validated until it is converted.
+	 */
+	public JSONNumber(String text){
+		if(text == null)
+			throw new NullPointerException();
+		this.text = text;
+	}
+
+	private Number value(){
+		Number v = value;
+		if(v == null){
+			if(isIntegral()){
+				try{
+					v = Long.valueOf(Long.parseLong(text));
+				}
+				catch(NumberFormatException nfe){
+					v = new BigInteger(text);
+				}
+			}
+			else{
+				v = Double.valueOf(text);
+			}
+			value = v;
+		}
+		return v;
+	}
+
+	/**
+	 * @return true if the text has neither a fraction nor an exponent.
+	 */
+	public boolean isIntegral(){
+		for(int i = 0; i < text.length(); i++){
+			char ch = text.charAt(i);
+			if(ch == '.' || ch == 'e' || ch == 'E')
+				return false;
+		}
+		return true;
+	}
+
+	public int intValue(){
+		return value().intValue();
+	}
+
+	public long longValue(){
+		return value().longValue();
+	}
+
+	public float floatValue(){
+		return value().floatValue();
+	}
+
+	public double doubleValue(){
+		return value().doubleValue();
+	}
+
+	/**
+	 * @return The exact value of the text.
+	 */
+	public BigDecimal bigDecimalValue(){
+		return new BigDecimal(text);
+	}
+
+	public String toJSONString(){
+		return text;
+	}
+
+	public String toString(){
+		return text;
+	}
+
+	/**
+	 * Two JSONNumbers are equal if their texts are equal.
+	 */
+	public boolean equals(Object o){
+		return o instanceof JSONNumber && text.equals(((JSONNumber)o).text);
+	}
+
+	public int hashCode(){
+		return text.hashCode();
+	}
+}
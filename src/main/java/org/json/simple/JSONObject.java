@@ -46,6 +46,13 @@ public class JSONObject extends HashMap implements Map, JSONAware, JSONStreamAwa
      * @param out
      */
 	public static void writeJSONString(Map map, Writer out) throws IOException {
+		if(MeteredWriter.isNeeded(out)){
+			MeteredWriter metered = new MeteredWriter(out, map);
+			writeJSONString(map, metered);
+			metered.done();
+			return;
+		}
+		
 		if(map == null){
 			out.write("null");
 			return;
@@ -61,10 +68,7 @@ public class JSONObject extends HashMap implements Map, JSONAware, JSONStreamAwa
             else
                 out.write(',');
 			Map.Entry entry=(Map.Entry)iter.next();
-            out.write('\"');
-            out.write(escape(String.valueOf(entry.getKey())));
-            out.write('\"');
-            out.write(':');
+            KeyFragments.write(String.valueOf(entry.getKey()), out);
 			JSONValue.writeJSONString(entry.getValue(), out);
 		}
 		out.write('}');
@@ -0,0 +1,28 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the values of a class as JSON text, for JSONValue.writeJSONString(Object, Writer).
+ * <p>
+ * For example, to write UUIDs as strings:
+ * <pre>
+ * JSONValue.registerSerializer(UUID.class, new JSONSerializer(){
+ *     public void writeJSONString(Object value, Writer out) throws IOException{
+ *         JSONValue.writeJSONString(value.toString(), out);
+ *     }
+ * });
+ * </pre>
+ *
+ * @see org.json.simple.JSONValue#registerSerializer(Class, JSONSerializer)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public interface JSONSerializer {
+	/**
+	 * Write a value, which is never null, as JSON text to out. Nested values should be written
+	 * with JSONValue.writeJSONString(Object, Writer) to the same out.
+	 */
+	void writeJSONString(Object value, Writer out) throws IOException;
+}
@@ -5,15 +5,18 @@
 package org.json.simple;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.util.Collection;
+import java.nio.ByteBuffer;
 // import java.util.List;
 import java.util.Map;
 
 import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.JSONParserFactory;
 import org.json.simple.parser.ParseException;
 
 
@@ -43,8 +46,7 @@ public class JSONValue {
 	 */
 	public static Object parse(Reader in){
 		try{
-			JSONParser parser=new JSONParser();
-			return parser.parse(in);
+			return parseWithException(in);
 		}
 		catch(Exception e){
 			return null;
@@ -94,13 +96,69 @@ public class JSONValue {
 	 * @throws ParseException
 	 */
 	public static Object parseWithException(Reader in) throws IOException, ParseException{
-		JSONParser parser=new JSONParser();
-		return parser.parse(in);
+		JSONParserFactory factory=JSONParserFactory.getDefault();
+		JSONParser parser=factory.acquire();
+		try{
+			return parser.parse(in);
+		}
+		finally{
+			factory.release(parser);
+		}
 	}
 	
 	public static Object parseWithException(String s) throws ParseException{
-		JSONParser parser=new JSONParser();
-		return parser.parse(s);
+		JSONParserFactory factory=JSONParserFactory.getDefault();
+		JSONParser parser=factory.acquire();
+		try{
+			return parser.parse(s);
+		}
+		finally{
+			factory.release(parser);
+		}
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the input stream, without decoding it through a Reader.
+	 * 
+	 * @see org.json.simple.parser.JSONParser#parse(InputStream)
+	 * 
+	 * @param in
+	 * @return Instance of the following:
+	 * 	org.json.simple.JSONObject,
+	 * 	org.json.simple.JSONArray,
+	 * 	java.lang.String,
+	 * 	java.lang.Number,
+	 * 	java.lang.Boolean,
+	 * 	null
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public static Object parseWithException(InputStream in) throws IOException, ParseException{
+		JSONParserFactory factory=JSONParserFactory.getDefault();
+		JSONParser parser=factory.acquire();
+		try{
+			return parser.parse(in);
+		}
+		finally{
+			factory.release(parser);
+		}
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the byte array.
+	 * 
+	 * @see org.json.simple.parser.JSONParser#parse(byte[], int, int)
+	 */
+	public static Object parseWithException(byte[] b) throws ParseException{
+		JSONParserFactory factory=JSONParserFactory.getDefault();
+		JSONParser parser=factory.acquire();
+		try{
+			return parser.parse(b, 0, b.length);
+		}
+		finally{
+			factory.release(parser);
+		}
 	}
 	
     /**
@@ -110,6 +168,11 @@ public class JSONValue {
      * <p>
      * DO NOT call this method from writeJSONString(Writer) of a class that implements both JSONStreamAware and (Map or List) with 
      * "this" as the first parameter, use JSONObject.writeJSONString(Map, Writer) or JSONArray.writeJSONString(List, Writer) instead. 
+     * <p>
+     * A Character or an enum is written as a string of its toString(). Any other object is written with toString(), unless a serializer is registered for it;
+     * register JSONBeans.SERIALIZER to write beans as JSON objects of their properties, the counterpart of JSONParser.parse(Reader, Class).
+     * <p>
+     * The serializer of each class is resolved once and cached; serializers registered with registerSerializer() come first.
      * 
      * @see org.json.simple.JSONObject#writeJSONString(Map, Writer)
      * @see org.json.simple.JSONArray#writeJSONString(List, Writer)
@@ -118,110 +181,77 @@ public class JSONValue {
      * @param writer
      */
 	public static void writeJSONString(Object value, Writer out) throws IOException {
-		if(value == null){
-			out.write("null");
-			return;
-		}
-		
-		if(value instanceof String){		
-            out.write('\"');
-			out.write(escape((String)value));
-            out.write('\"');
-			return;
-		}
-		
-		if(value instanceof Double){
-			if(((Double)value).isInfinite() || ((Double)value).isNaN())
-				out.write("null");
-			else
-				out.write(value.toString());
-			return;
-		}
-		
-		if(value instanceof Float){
-			if(((Float)value).isInfinite() || ((Float)value).isNaN())
-				out.write("null");
-			else
-				out.write(value.toString());
+		if(MeteredWriter.isNeeded(out)){
+			MeteredWriter metered = new MeteredWriter(out, value);
+			writeJSONString(value, metered);
+			metered.done();
 			return;
-		}		
-		
-		if(value instanceof Number){
-			out.write(value.toString());
-			return;
-		}
-		
-		if(value instanceof Boolean){
-			out.write(value.toString());
-			return;
-		}
-		
-		if((value instanceof JSONStreamAware)){
-			((JSONStreamAware)value).writeJSONString(out);
-			return;
-		}
-		
-		if((value instanceof JSONAware)){
-			out.write(((JSONAware)value).toJSONString());
-			return;
-		}
-		
-		if(value instanceof Map){
-			JSONObject.writeJSONString((Map)value, out);
-			return;
-		}
-		
-		if(value instanceof Collection){
-			JSONArray.writeJSONString((Collection)value, out);
-            return;
 		}
 		
-		if(value instanceof byte[]){
-			JSONArray.writeJSONString((byte[])value, out);
-			return;
-		}
-		
-		if(value instanceof short[]){
-			JSONArray.writeJSONString((short[])value, out);
-			return;
-		}
-		
-		if(value instanceof int[]){
-			JSONArray.writeJSONString((int[])value, out);
-			return;
-		}
-		
-		if(value instanceof long[]){
-			JSONArray.writeJSONString((long[])value, out);
+		if(value == null){
+			out.write("null");
 			return;
 		}
 		
-		if(value instanceof float[]){
-			JSONArray.writeJSONString((float[])value, out);
-			return;
+		Serializers.get(value.getClass()).writeJSONString(value, out);
+	}
+	
+	/**
+	 * Register a serializer for a class, its subclasses and, for an interface, the classes implementing it.
+	 * It takes precedence over the built-in serializers. When several serializers apply to a class, the
+	 * one registered for the class itself or its closest superclass wins, then the one of an interface.
+	 * 
+	 * @param type
+	 * @param serializer - The serializer, or null to remove the one registered for the class.
+	 */
+	public static void registerSerializer(Class type, JSONSerializer serializer){
+		Serializers.register(type, serializer);
+	}
+
+	/**
+	 * Encode an object into JSON text and write it to out as UTF-8. The text is encoded straight into
+	 * a byte buffer that is recycled per thread, instead of going through an OutputStreamWriter.
+	 * The stream is not flushed.
+	 * 
+	 * @see #writeJSONString(Object, Writer)
+	 * 
+	 * @param value
+	 * @param out
+	 */
+	public static void writeJSONString(Object value, OutputStream out) throws IOException {
+		Utf8Writer writer = Utf8Writer.get(out, null);
+		try{
+			writeJSONString(value, writer);
+			writer.finish();
 		}
-		
-		if(value instanceof double[]){
-			JSONArray.writeJSONString((double[])value, out);
-			return;
+		finally{
+			writer.release();
 		}
-		
-		if(value instanceof boolean[]){
-			JSONArray.writeJSONString((boolean[])value, out);
-			return;
+	}
+	
+	/**
+	 * Encode an object into JSON text and put it into the buffer as UTF-8, from its position on.
+	 * 
+	 * @see #writeJSONString(Object, OutputStream)
+	 * 
+	 * @param value
+	 * @param buffer
+	 * @throws java.nio.BufferOverflowException if the text does not fit into the remaining bytes;
+	 * 	part of it may have been put into the buffer then.
+	 */
+	public static void writeJSONString(Object value, ByteBuffer buffer){
+		Utf8Writer writer = Utf8Writer.get(null, buffer);
+		try{
+			writeJSONString(value, writer);
+			writer.finish();
 		}
-		
-		if(value instanceof char[]){
-			JSONArray.writeJSONString((char[])value, out);
-			return;
+		catch(IOException e){
+			// This should never happen without a stream
+			throw new RuntimeException(e);
 		}
-		
-		if(value instanceof Object[]){
-			JSONArray.writeJSONString((Object[])value, out);
-			return;
+		finally{
+			writer.release();
 		}
-		
-		out.write(value.toString());
 	}
 
 	/**
@@ -250,67 +280,112 @@ public class JSONValue {
 		}
 	}
 
+	/** the escape sequences of the ASCII characters, or null for the characters that are written as they are */
+	private static final String[] ASCII_ESCAPES = new String[128];
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	
+	static{
+		for(int ch = 0; ch <= 0x1F; ch++)
+			ASCII_ESCAPES[ch] = "\\u00" + HEX_DIGITS[ch >> 4] + HEX_DIGITS[ch & 0xF];
+		ASCII_ESCAPES[0x7F] = "\\u007F";
+		ASCII_ESCAPES['"'] = "\\\"";
+		ASCII_ESCAPES['\\'] = "\\\\";
+		ASCII_ESCAPES['\b'] = "\\b";
+		ASCII_ESCAPES['\f'] = "\\f";
+		ASCII_ESCAPES['\n'] = "\\n";
+		ASCII_ESCAPES['\r'] = "\\r";
+		ASCII_ESCAPES['\t'] = "\\t";
+		ASCII_ESCAPES['/'] = "\\/";
+	}
+	
 	/**
 	 * Escape quotes, \, /, \r, \n, \b, \f, \t and other control characters (U+0000 through U+001F).
 	 * @param s
-	 * @return
+	 * @return s itself if nothing needs to be escaped.
 	 */
 	public static String escape(String s){
 		if(s==null)
 			return null;
-        StringBuffer sb = new StringBuffer();
+		if(indexOfEscape(s, 0) < 0)
+			return s;
+        StringBuffer sb = new StringBuffer(s.length() + 16);
         escape(s, sb);
         return sb.toString();
     }
+	
+	/**
+	 * Escape a string like escape(String) and write it to out. The runs of characters that need no
+	 * escaping are written straight from s, without copying them first.
+	 * 
+	 * @param s - Must not be null.
+	 * @param out
+	 */
+	public static void escape(String s, Writer out) throws IOException{
+		int start = 0;
+		for(int i = indexOfEscape(s, 0); i >= 0; i = indexOfEscape(s, start)){
+			if(i > start)
+				out.write(s, start, i - start);
+			char ch = s.charAt(i);
+			if(ch < 128){
+				out.write(ASCII_ESCAPES[ch]);
+			}
+			else{
+				out.write('\\');
+				out.write('u');
+				out.write(HEX_DIGITS[ch >> 12]);
+				out.write(HEX_DIGITS[(ch >> 8) & 0xF]);
+				out.write(HEX_DIGITS[(ch >> 4) & 0xF]);
+				out.write(HEX_DIGITS[ch & 0xF]);
+			}
+			start = i + 1;
+		}
+		if(start == 0)
+			out.write(s);
+		else if(start < s.length())
+			out.write(s, start, s.length() - start);
+	}
+	
+	/**
+	 * @return The index of the first character from index from on that needs escaping, or -1.
+	 */
+	private static int indexOfEscape(String s, int from){
+		final int len = s.length();
+		for(int i = from; i < len; i++){
+			char ch = s.charAt(i);
+			if(ch < 128){
+				if(ASCII_ESCAPES[ch] != null)
+					return i;
+			}
+			//Reference: http://www.unicode.org/versions/Unicode5.1.0/
+			else if(ch <= '\u009F' || (ch >= '\u2000' && ch <= '\u20FF')){
+				return i;
+			}
+		}
+		return -1;
+	}
 
     /**
      * @param s - Must not be null.
      * @param sb
      */
     static void escape(String s, StringBuffer sb) {
-    	final int len = s.length();
-		for(int i=0;i<len;i++){
-			char ch=s.charAt(i);
-			switch(ch){
-			case '"':
-				sb.append("\\\"");
-				break;
-			case '\\':
-				sb.append("\\\\");
-				break;
-			case '\b':
-				sb.append("\\b");
-				break;
-			case '\f':
-				sb.append("\\f");
-				break;
-			case '\n':
-				sb.append("\\n");
-				break;
-			case '\r':
-				sb.append("\\r");
-				break;
-			case '\t':
-				sb.append("\\t");
-				break;
-			case '/':
-				sb.append("\\/");
-				break;
-			default:
-                //Reference: http://www.unicode.org/versions/Unicode5.1.0/
-				if((ch>='\u0000' && ch<='\u001F') || (ch>='\u007F' && ch<='\u009F') || (ch>='\u2000' && ch<='\u20FF')){
-					String ss=Integer.toHexString(ch);
-					sb.append("\\u");
-					for(int k=0;k<4-ss.length();k++){
-						sb.append('0');
-					}
-					sb.append(ss.toUpperCase());
-				}
-				else{
-					sb.append(ch);
-				}
+		int start = 0;
+		for(int i = indexOfEscape(s, 0); i >= 0; i = indexOfEscape(s, start)){
+			sb.append(s, start, i);
+			char ch = s.charAt(i);
+			if(ch < 128){
+				sb.append(ASCII_ESCAPES[ch]);
 			}
-		}//for
+			else{
+				sb.append('\\').append('u')
+					.append(HEX_DIGITS[ch >> 12])
+					.append(HEX_DIGITS[(ch >> 8) & 0xF])
+					.append(HEX_DIGITS[(ch >> 4) & 0xF])
+					.append(HEX_DIGITS[ch & 0xF]);
+			}
+			start = i + 1;
+		}
+		sb.append(s, start, s.length());
 	}
 
 }
@@ -0,0 +1,65 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A bounded cache of object keys rendered as the fragment "key": with quotes, escapes and colon,
+ * shared by all threads. It is direct-mapped: a key goes to the slot of its hash and replaces
+ * whatever key was there, so the cache never grows and needs no locking, as entries are immutable.
+ * Long keys are not cached.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class KeyFragments {
+	private static final int SIZE = 1024;
+	private static final int MAX_KEY_LENGTH = 64;
+
+	private static final Entry[] TABLE = new Entry[SIZE];
+
+	private KeyFragments(){
+	}
+
+	/**
+	 * Writes "key": to out.
+	 */
+	static void write(String key, Writer out) throws IOException{
+		if(key.length() > MAX_KEY_LENGTH){
+			out.write('\"');
+			JSONValue.escape(key, out);
+			out.write('\"');
+			out.write(':');
+			return;
+		}
+		int slot = key.hashCode() & (SIZE - 1);
+		Entry entry = TABLE[slot];
+		if(entry == null || (entry.key != key && !entry.key.equals(key))){
+			entry = new Entry(key);
+			TABLE[slot] = entry;
+		}
+		out.write(entry.fragment, 0, entry.fragment.length);
+	}
+
+	/**
+	 * @return The fragment "key": of a key.
+	 */
+	static char[] render(String key){
+		StringBuffer sb = new StringBuffer(key.length() + 3);
+		sb.append('\"');
+		JSONValue.escape(key, sb);
+		sb.append('\"').append(':');
+		char[] fragment = new char[sb.length()];
+		sb.getChars(0, fragment.length, fragment, 0);
+		return fragment;
+	}
+
+	private static final class Entry {
+		final String key;
+		final char[] fragment;
+
+		Entry(String key){
+			this.key = key;
+			this.fragment = render(key);
+		}
+	}
+}
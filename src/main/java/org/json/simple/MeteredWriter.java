@@ -0,0 +1,73 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Counts the chars of a document written at the top level, for JSONMetrics and for the flight
+ * recorder events. Nested values are written to the same MeteredWriter, which is how the writers
+ * tell that they are not at the top level.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class MeteredWriter extends Writer {
+	private final Writer out;
+	private final Class type;
+	private final Object event = SerializeEvents.begin();
+	private final long start = System.nanoTime();
+	private long length;
+
+	/**
+	 * @return Whether a document written to out at this point has to be metered.
+	 */
+	static boolean isNeeded(Writer out){
+		return (JSONMetrics.ENABLED || SerializeEvents.isEnabled()) && !(out instanceof MeteredWriter);
+	}
+
+	/**
+	 * @param out
+	 * @param value - The value of the document, whose class is reported.
+	 */
+	MeteredWriter(Writer out, Object value){
+		this.out = out;
+		this.type = value == null ? null : value.getClass();
+	}
+
+	public void write(int c) throws IOException{
+		out.write(c);
+		length++;
+	}
+
+	public void write(char[] cbuf, int off, int len) throws IOException{
+		out.write(cbuf, off, len);
+		length += len;
+	}
+
+	public void write(String str) throws IOException{
+		out.write(str);
+		length += str.length();
+	}
+
+	public void write(String str, int off, int len) throws IOException{
+		out.write(str, off, len);
+		length += len;
+	}
+
+	public void flush() throws IOException{
+		out.flush();
+	}
+
+	public void close() throws IOException{
+		out.close();
+	}
+
+	/**
+	 * Reports the document, once it has been written completely.
+	 */
+	void done(){
+		if(JSONMetrics.ENABLED)
+			JSONMetrics.reportWritten(length, System.nanoTime() - start);
+		if(event != null)
+			SerializeEvents.end(event, length, type);
+	}
+}
@@ -0,0 +1,519 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+
+/**
+ * Formats numbers straight into a char buffer that is recycled per thread, and writes that to the
+ * Writer, without creating a String for every number.
+ * <p>
+ * Integral numbers are converted two digits at a time with a table of digit pairs. Doubles and floats
+ * are converted with the Schubfach algorithm of Raffaello Giulietti ("The Schubfach way to render
+ * doubles", 2020), which yields the shortest decimal that rounds back to the same value, and are
+ * written in the notation of Double.toString() and Float.toString(): "1.0", "0.001", "1.0E7",
+ * "1.0E-4". NaN and infinities are written as null.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class NumberWriter {
+	private static final ThreadLocal WRITERS = new ThreadLocal();
+
+	/** "00", "01", ..., "99" */
+	private static final char[] DIGIT_PAIRS = new char[200];
+
+	/** 10^0 to 10^17 */
+	private static final long[] POW10 = new long[18];
+
+	private static final int MASK_28 = (1 << 28) - 1;
+
+	// the parameters of doubles
+	private static final int D_P = 53;
+	private static final int D_W = 11;
+	private static final int D_Q_MIN = -1074;
+	private static final long D_C_TINY = 3;
+	private static final int D_H = 17;
+	private static final long D_C_MIN = 1L << (D_P - 1);
+	private static final int D_BQ_MASK = (1 << D_W) - 1;
+	private static final long D_T_MASK = (1L << (D_P - 1)) - 1;
+	private static final long MASK_63 = (1L << 63) - 1;
+
+	// the parameters of floats
+	private static final int F_P = 24;
+	private static final int F_W = 8;
+	private static final int F_Q_MIN = -149;
+	private static final int F_C_TINY = 8;
+	private static final int F_H = 9;
+	private static final int F_C_MIN = 1 << (F_P - 1);
+	private static final int F_BQ_MASK = (1 << F_W) - 1;
+	private static final int F_T_MASK = (1 << (F_P - 1)) - 1;
+	private static final long MASK_32 = (1L << 32) - 1;
+
+	/**
+	 * For k from K_MIN to K_MAX, let 10^-k = b 2^r with 2^125 <= b < 2^126, and g = floor(b) + 1.
+	 * G holds g / 2^63 at 2 (k - K_MIN), and g mod 2^63 right after it.
+	 */
+	private static final int K_MIN = -324;
+	private static final int K_MAX = 292;
+	private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+
+	static{
+		for(int i = 0; i < 100; i++){
+			DIGIT_PAIRS[2 * i] = (char)('0' + i / 10);
+			DIGIT_PAIRS[2 * i + 1] = (char)('0' + i % 10);
+		}
+		POW10[0] = 1;
+		for(int i = 1; i < POW10.length; i++)
+			POW10[i] = 10 * POW10[i - 1];
+		BigInteger mask63 = BigInteger.valueOf(MASK_63);
+		for(int k = K_MIN; k <= K_MAX; k++){
+			BigInteger b;
+			if(k <= 0){
+				BigInteger pow = BigInteger.TEN.pow(-k);
+				int shift = 126 - pow.bitLength();
+				b = shift >= 0 ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+			}
+			else{
+				BigInteger pow = BigInteger.TEN.pow(k);
+				b = BigInteger.ONE.shiftLeft(125 + pow.bitLength()).divide(pow);
+			}
+			BigInteger g = b.add(BigInteger.ONE);
+			G[2 * (k - K_MIN)] = g.shiftRight(63).longValue();
+			G[2 * (k - K_MIN) + 1] = g.and(mask63).longValue();
+		}
+	}
+
+	private final char[] buf = new char[32];
+	/** the number of chars in buf */
+	private int count;
+
+	private NumberWriter(){
+	}
+
+	private static NumberWriter get(){
+		NumberWriter writer = (NumberWriter)WRITERS.get();
+		if(writer == null){
+			writer = new NumberWriter();
+			WRITERS.set(writer);
+		}
+		return writer;
+	}
+
+	static void write(long v, Writer out) throws IOException{
+		if(v >= 0 && v < 10){
+			out.write((int)('0' + v));
+			return;
+		}
+		get().writeLong(v, out);
+	}
+
+	static void write(double v, Writer out) throws IOException{
+		get().writeDouble(v, out);
+	}
+
+	static void write(float v, Writer out) throws IOException{
+		get().writeFloat(v, out);
+	}
+
+	private void writeLong(long v, Writer out) throws IOException{
+		char[] b = buf;
+		int p = b.length;
+		boolean negative = v < 0;
+		// the digits are taken from a non-positive value, so Long.MIN_VALUE works as well
+		if(!negative)
+			v = -v;
+		while(v <= -100){
+			long q = v / 100;
+			int r = (int)(100 * q - v);
+			v = q;
+			b[--p] = DIGIT_PAIRS[2 * r + 1];
+			b[--p] = DIGIT_PAIRS[2 * r];
+		}
+		int r = (int)-v;
+		if(r >= 10){
+			b[--p] = DIGIT_PAIRS[2 * r + 1];
+			b[--p] = DIGIT_PAIRS[2 * r];
+		}
+		else{
+			b[--p] = (char)('0' + r);
+		}
+		if(negative)
+			b[--p] = '-';
+		out.write(b, p, b.length - p);
+	}
+
+	private void writeDouble(double v, Writer out) throws IOException{
+		long bits = Double.doubleToRawLongBits(v);
+		long t = bits & D_T_MASK;
+		int bq = (int)(bits >>> (D_P - 1)) & D_BQ_MASK;
+		if(bq == D_BQ_MASK){
+			out.write("null");
+			return;
+		}
+		count = 0;
+		if(bits < 0)
+			append('-');
+		if(bq != 0){
+			int mq = -D_Q_MIN + 1 - bq;
+			long c = D_C_MIN | t;
+			long f = 0 < mq && mq < D_P ? c >> mq : 0;
+			// an integer
+			if(f != 0 && f << mq == c)
+				toChars(f, 0);
+			else
+				toDecimal(-mq, c, 0);
+		}
+		else if(t != 0){
+			// a subnormal value
+			if(t < D_C_TINY)
+				toDecimal(D_Q_MIN, 10 * t, -1);
+			else
+				toDecimal(D_Q_MIN, t, 0);
+		}
+		else{
+			append('0');
+			append('.');
+			append('0');
+		}
+		out.write(buf, 0, count);
+	}
+
+	private void toDecimal(int q, long c, int dk){
+		int out = (int)c & 0x1;
+		long cb = c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		if(c != D_C_MIN || q == D_Q_MIN){
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		}
+		else{
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		int h = q + flog2pow10(-k) + 2;
+
+		long g1 = G[2 * (k - K_MIN)];
+		long g0 = G[2 * (k - K_MIN) + 1];
+
+		long vb = rop(g1, g0, cb << h);
+		long vbl = rop(g1, g0, cbl << h);
+		long vbr = rop(g1, g0, cbr << h);
+
+		long s = vb >> 2;
+		if(s >= 100){
+			// s' 10 and t' 10, the neighbors of the value with one digit less
+			long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+			long tp10 = sp10 + 10;
+			boolean upin = vbl + out <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + out <= vbr;
+			if(upin != wpin){
+				toChars(upin ? sp10 : tp10, k);
+				return;
+			}
+		}
+		long t = s + 1;
+		boolean uin = vbl + out <= s << 2;
+		boolean win = (t << 2) + out <= vbr;
+		if(uin != win){
+			toChars(uin ? s : t, k + dk);
+			return;
+		}
+		long cmp = vb - ((s + t) << 1);
+		toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+	}
+
+	/**
+	 * @return The rounded-to-odd product of g and cp, scaled down by 2^127.
+	 */
+	private static long rop(long g1, long g0, long cp){
+		long x1 = multiplyHigh(g0, cp);
+		long y0 = g1 * cp;
+		long y1 = multiplyHigh(g1, cp);
+		long z = (y0 >>> 1) + x1;
+		long vbp = y1 + (z >>> 63);
+		return vbp | (((z & MASK_63) + MASK_63) >>> 63);
+	}
+
+	/**
+	 * Appends f 10^e, where f has at most 17 digits.
+	 */
+	private void toChars(long f, int e){
+		int len = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+		if(f >= POW10[len])
+			len++;
+		// now 0.f 10^e, with f of exactly 17 digits
+		f *= POW10[D_H - len];
+		e += len;
+		// the first digit, the next 8 digits and the last 8 digits
+		long hm = multiplyHigh(f, 193428131138340668L) >>> 20;
+		int l = (int)(f - 100000000 * hm);
+		int h = (int)(hm * 1441151881L >>> 57);
+		int m = (int)(hm - 100000000 * h);
+		if(0 < e && e <= 7){
+			// plain, without leading zeros
+			appendDigit(h);
+			int y = y(m);
+			int i = 1;
+			for(; i < e; i++){
+				int t = 10 * y;
+				appendDigit(t >>> 28);
+				y = t & MASK_28;
+			}
+			append('.');
+			for(; i <= 8; i++){
+				int t = 10 * y;
+				appendDigit(t >>> 28);
+				y = t & MASK_28;
+			}
+			lowDigits(l);
+		}
+		else if(-3 < e && e <= 0){
+			// plain, with leading zeros
+			appendDigit(0);
+			append('.');
+			for(; e < 0; e++)
+				appendDigit(0);
+			appendDigit(h);
+			append8Digits(m);
+			lowDigits(l);
+		}
+		else{
+			appendDigit(h);
+			append('.');
+			append8Digits(m);
+			lowDigits(l);
+			exponent(e - 1);
+		}
+	}
+
+	private void lowDigits(int l){
+		if(l != 0)
+			append8Digits(l);
+		removeTrailingZeros();
+	}
+
+	private void writeFloat(float v, Writer out) throws IOException{
+		int bits = Float.floatToRawIntBits(v);
+		int t = bits & F_T_MASK;
+		int bq = (bits >>> (F_P - 1)) & F_BQ_MASK;
+		if(bq == F_BQ_MASK){
+			out.write("null");
+			return;
+		}
+		count = 0;
+		if(bits < 0)
+			append('-');
+		if(bq != 0){
+			int mq = -F_Q_MIN + 1 - bq;
+			int c = F_C_MIN | t;
+			int f = 0 < mq && mq < F_P ? c >> mq : 0;
+			// an integer
+			if(f != 0 && f << mq == c)
+				toChars(f, 0);
+			else
+				toDecimal(-mq, c, 0);
+		}
+		else if(t != 0){
+			// a subnormal value
+			if(t < F_C_TINY)
+				toDecimal(F_Q_MIN, 10 * t, -1);
+			else
+				toDecimal(F_Q_MIN, t, 0);
+		}
+		else{
+			append('0');
+			append('.');
+			append('0');
+		}
+		out.write(buf, 0, count);
+	}
+
+	private void toDecimal(int q, int c, int dk){
+		int out = c & 0x1;
+		long cb = (long)c << 2;
+		long cbr = cb + 2;
+		long cbl;
+		int k;
+		if(c != F_C_MIN || q == F_Q_MIN){
+			cbl = cb - 2;
+			k = flog10pow2(q);
+		}
+		else{
+			cbl = cb - 1;
+			k = flog10threeQuartersPow2(q);
+		}
+		int h = q + flog2pow10(-k) + 33;
+
+		long g = G[2 * (k - K_MIN)] + 1;
+
+		int vb = rop(g, cb << h);
+		int vbl = rop(g, cbl << h);
+		int vbr = rop(g, cbr << h);
+
+		int s = vb >> 2;
+		if(s >= 100){
+			int sp10 = 10 * (int)(s * 1717986919L >>> 34);
+			int tp10 = sp10 + 10;
+			boolean upin = vbl + out <= sp10 << 2;
+			boolean wpin = (tp10 << 2) + out <= vbr;
+			if(upin != wpin){
+				toChars(upin ? sp10 : tp10, k);
+				return;
+			}
+		}
+		int t = s + 1;
+		boolean uin = vbl + out <= s << 2;
+		boolean win = (t << 2) + out <= vbr;
+		if(uin != win){
+			toChars(uin ? s : t, k + dk);
+			return;
+		}
+		int cmp = vb - ((s + t) << 1);
+		toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+	}
+
+	private static int rop(long g, long cp){
+		long x1 = multiplyHigh(g, cp);
+		long vbp = x1 >>> 31;
+		return (int)(vbp | (((x1 & MASK_32) + MASK_32) >>> 32));
+	}
+
+	/**
+	 * Appends f 10^e, where f has at most 9 digits.
+	 */
+	private void toChars(int f, int e){
+		int len = flog10pow2(Integer.SIZE - Integer.numberOfLeadingZeros(f));
+		if(f >= POW10[len])
+			len++;
+		f *= (int)POW10[F_H - len];
+		e += len;
+		// the first digit and the last 8 digits
+		int h = (int)(f * 1441151881L >>> 57);
+		int l = f - 100000000 * h;
+		if(0 < e && e <= 7){
+			appendDigit(h);
+			int y = y(l);
+			int i = 1;
+			for(; i < e; i++){
+				int t = 10 * y;
+				appendDigit(t >>> 28);
+				y = t & MASK_28;
+			}
+			append('.');
+			for(; i <= 8; i++){
+				int t = 10 * y;
+				appendDigit(t >>> 28);
+				y = t & MASK_28;
+			}
+			removeTrailingZeros();
+		}
+		else if(-3 < e && e <= 0){
+			appendDigit(0);
+			append('.');
+			for(; e < 0; e++)
+				appendDigit(0);
+			appendDigit(h);
+			append8Digits(l);
+			removeTrailingZeros();
+		}
+		else{
+			appendDigit(h);
+			append('.');
+			append8Digits(l);
+			removeTrailingZeros();
+			exponent(e - 1);
+		}
+	}
+
+	private void append8Digits(int m){
+		int y = y(m);
+		for(int i = 0; i < 8; i++){
+			int t = 10 * y;
+			appendDigit(t >>> 28);
+			y = t & MASK_28;
+		}
+	}
+
+	/**
+	 * Removes the trailing zeros, but keeps the one right after the decimal point.
+	 */
+	private void removeTrailingZeros(){
+		while(buf[count - 1] == '0')
+			count--;
+		if(buf[count - 1] == '.')
+			count++;
+	}
+
+	/**
+	 * @return floor((a + 1) 2^28 / 10^8) - 1, the start of the left-to-right digit extraction of a < 10^8.
+	 */
+	private static int y(int a){
+		return (int)(multiplyHigh((long)(a + 1) << 28, 193428131138340668L) >>> 20) - 1;
+	}
+
+	private void exponent(int e){
+		append('E');
+		if(e < 0){
+			append('-');
+			e = -e;
+		}
+		if(e < 10){
+			appendDigit(e);
+			return;
+		}
+		if(e >= 100){
+			int d = e * 1311 >>> 17;
+			appendDigit(d);
+			e -= 100 * d;
+		}
+		append(DIGIT_PAIRS[2 * e]);
+		append(DIGIT_PAIRS[2 * e + 1]);
+	}
+
+	private void append(char c){
+		buf[count++] = c;
+	}
+
+	private void appendDigit(int d){
+		buf[count++] = (char)('0' + d);
+	}
+
+	/**
+	 * @return floor(e log10(2))
+	 */
+	private static int flog10pow2(int e){
+		return (int)(e * 661971961083L >> 41);
+	}
+
+	/**
+	 * @return floor(log10(3/4 2^e))
+	 */
+	private static int flog10threeQuartersPow2(int e){
+		return (int)((e * 661971961083L + -274743187321L) >> 41);
+	}
+
+	/**
+	 * @return floor(e log2(10))
+	 */
+	private static int flog2pow10(int e){
+		return (int)(e * 913124641741L >> 38);
+	}
+
+	/**
+	 * Math.multiplyHigh(), which needs Java 9.
+	 */
+	private static long multiplyHigh(long x, long y){
+		long x1 = x >> 32;
+		long x2 = x & 0xFFFFFFFFL;
+		long y1 = y >> 32;
+		long y2 = y & 0xFFFFFFFFL;
+		long z2 = x2 * y2;
+		long t = x1 * y2 + (z2 >>> 32);
+		long z1 = t & 0xFFFFFFFFL;
+		long z0 = t >> 32;
+		z1 += x2 * y1;
+		return x1 * y1 + z0 + (z1 >> 32);
+	}
+}
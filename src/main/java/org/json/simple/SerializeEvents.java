@@ -0,0 +1,32 @@
+package org.json.simple;
+
+/**
+ * Hooks for the org.json.simple.Serialize events of JDK Flight Recorder. This version for Java 8 does
+ * nothing; the multi-release jar replaces it on Java 11 and later with the one in src/main/java11.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class SerializeEvents {
+	private SerializeEvents(){
+	}
+
+	static boolean isEnabled(){
+		return false;
+	}
+
+	/**
+	 * @return The started event, or null if it is not enabled.
+	 */
+	static Object begin(){
+		return null;
+	}
+
+	/**
+	 * Commits an event returned by begin().
+	 *
+	 * @param length - The length of the JSON text, in chars.
+	 * @param type - The class of the value written.
+	 */
+	static void end(Object event, long length, Class type){
+	}
+}
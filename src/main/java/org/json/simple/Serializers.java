@@ -0,0 +1,218 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The serializer of every class, resolved once per class and cached in a ClassValue: a serializer
+ * registered for the class, one of its superclasses or one of its interfaces, in this order; else one
+ * of the built-in serializers, chosen in the order JSONValue.writeJSONString(Object, Writer) documents.
+ * <p>
+ * The built-in serializers are all instances of one class that switches on a kind, so the call site
+ * in JSONValue stays monomorphic unless serializers are registered.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class Serializers {
+	private static final int STRING = 0;
+	private static final int DOUBLE = 1;
+	private static final int FLOAT = 2;
+	/** other Numbers, such as BigDecimal, and Booleans */
+	private static final int TO_STRING = 3;
+	private static final int STREAM_AWARE = 4;
+	private static final int AWARE = 5;
+	private static final int MAP = 6;
+	private static final int COLLECTION = 7;
+	private static final int BYTES = 8;
+	private static final int SHORTS = 9;
+	private static final int INTS = 10;
+	private static final int LONGS = 11;
+	private static final int FLOATS = 12;
+	private static final int DOUBLES = 13;
+	private static final int BOOLEANS = 14;
+	private static final int CHARS = 15;
+	private static final int OBJECTS = 16;
+	/** Characters and enums */
+	private static final int QUOTED = 17;
+	/** Longs, Integers, Shorts and Bytes */
+	private static final int INTEGRAL = 18;
+
+	/** the registered serializers; replaced as a whole, together with the cache */
+	private static Map registered = new HashMap();
+	private static volatile ClassValue cache = newCache();
+
+	private Serializers(){
+	}
+
+	/**
+	 * @return The serializer of the class, never null.
+	 */
+	static JSONSerializer get(Class type){
+		return (JSONSerializer)cache.get(type);
+	}
+
+	static synchronized void register(Class type, JSONSerializer serializer){
+		Map map = new HashMap(registered);
+		if(serializer == null)
+			map.remove(type);
+		else
+			map.put(type, serializer);
+		registered = map;
+		cache = newCache();
+	}
+
+	private static ClassValue newCache(){
+		final Map map = registered;
+		return new ClassValue(){
+			protected Object computeValue(Class type){
+				JSONSerializer serializer = registered(map, type);
+				return serializer != null ? serializer : builtin(type);
+			}
+		};
+	}
+
+	private static JSONSerializer registered(Map map, Class type){
+		if(map.isEmpty())
+			return null;
+		for(Class c = type; c != null; c = c.getSuperclass()){
+			JSONSerializer serializer = (JSONSerializer)map.get(c);
+			if(serializer != null)
+				return serializer;
+		}
+		for(Class c = type; c != null; c = c.getSuperclass()){
+			JSONSerializer serializer = registeredInterface(map, c.getInterfaces());
+			if(serializer != null)
+				return serializer;
+		}
+		return null;
+	}
+
+	private static JSONSerializer registeredInterface(Map map, Class[] interfaces){
+		for(int i = 0; i < interfaces.length; i++){
+			JSONSerializer serializer = (JSONSerializer)map.get(interfaces[i]);
+			if(serializer == null)
+				serializer = registeredInterface(map, interfaces[i].getInterfaces());
+			if(serializer != null)
+				return serializer;
+		}
+		return null;
+	}
+
+	private static JSONSerializer builtin(Class type){
+		if(type == String.class)
+			return new Builtin(STRING);
+		if(type == Double.class)
+			return new Builtin(DOUBLE);
+		if(type == Float.class)
+			return new Builtin(FLOAT);
+		if(type == Long.class || type == Integer.class || type == Short.class || type == Byte.class)
+			return new Builtin(INTEGRAL);
+		if(Number.class.isAssignableFrom(type) || type == Boolean.class)
+			return new Builtin(TO_STRING);
+		if(JSONStreamAware.class.isAssignableFrom(type))
+			return new Builtin(STREAM_AWARE);
+		if(JSONAware.class.isAssignableFrom(type))
+			return new Builtin(AWARE);
+		if(Map.class.isAssignableFrom(type))
+			return new Builtin(MAP);
+		if(Collection.class.isAssignableFrom(type))
+			return new Builtin(COLLECTION);
+		if(type == byte[].class)
+			return new Builtin(BYTES);
+		if(type == short[].class)
+			return new Builtin(SHORTS);
+		if(type == int[].class)
+			return new Builtin(INTS);
+		if(type == long[].class)
+			return new Builtin(LONGS);
+		if(type == float[].class)
+			return new Builtin(FLOATS);
+		if(type == double[].class)
+			return new Builtin(DOUBLES);
+		if(type == boolean[].class)
+			return new Builtin(BOOLEANS);
+		if(type == char[].class)
+			return new Builtin(CHARS);
+		if(Object[].class.isAssignableFrom(type))
+			return new Builtin(OBJECTS);
+		if(type == Character.class || Enum.class.isAssignableFrom(type))
+			return new Builtin(QUOTED);
+		return new Builtin(TO_STRING);
+	}
+
+	private static final class Builtin implements JSONSerializer {
+		private final int kind;
+
+		Builtin(int kind){
+			this.kind = kind;
+		}
+
+		public void writeJSONString(Object value, Writer out) throws IOException{
+			switch(kind){
+			case STRING:
+				out.write('\"');
+				JSONValue.escape((String)value, out);
+				out.write('\"');
+				return;
+			case DOUBLE:
+				NumberWriter.write(((Double)value).doubleValue(), out);
+				return;
+			case FLOAT:
+				NumberWriter.write(((Float)value).floatValue(), out);
+				return;
+			case INTEGRAL:
+				NumberWriter.write(((Number)value).longValue(), out);
+				return;
+			case STREAM_AWARE:
+				((JSONStreamAware)value).writeJSONString(out);
+				return;
+			case AWARE:
+				out.write(((JSONAware)value).toJSONString());
+				return;
+			case MAP:
+				JSONObject.writeJSONString((Map)value, out);
+				return;
+			case COLLECTION:
+				JSONArray.writeJSONString((Collection)value, out);
+				return;
+			case BYTES:
+				JSONArray.writeJSONString((byte[])value, out);
+				return;
+			case SHORTS:
+				JSONArray.writeJSONString((short[])value, out);
+				return;
+			case INTS:
+				JSONArray.writeJSONString((int[])value, out);
+				return;
+			case LONGS:
+				JSONArray.writeJSONString((long[])value, out);
+				return;
+			case FLOATS:
+				JSONArray.writeJSONString((float[])value, out);
+				return;
+			case DOUBLES:
+				JSONArray.writeJSONString((double[])value, out);
+				return;
+			case BOOLEANS:
+				JSONArray.writeJSONString((boolean[])value, out);
+				return;
+			case CHARS:
+				JSONArray.writeJSONString((char[])value, out);
+				return;
+			case OBJECTS:
+				JSONArray.writeJSONString((Object[])value, out);
+				return;
+			case QUOTED:
+				out.write('\"');
+				JSONValue.escape(value.toString(), out);
+				out.write('\"');
+				return;
+			default:
+				out.write(value.toString());
+			}
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package org.json.simple;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the JSON text written by JSONValue, JSONObject and JSONArray as UTF-8 straight into a byte
+ * buffer, which is then written to an OutputStream or put into a ByteBuffer. ASCII, which is all of
+ * the structure, numbers, literals and usually the keys, is copied char by char into the buffer in a
+ * tight loop; there is no CharsetEncoder and no intermediate char buffer as with OutputStreamWriter.
+ * <p>
+ * Unpaired surrogates are written as '?', like OutputStreamWriter does. The byte buffer is recycled
+ * per thread.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class Utf8Writer extends Writer {
+	private static final int BUFFER_SIZE = 8192;
+	private static final ThreadLocal BUFFERS = new ThreadLocal();
+
+	private final byte[] buf;
+	private int count;
+	private final OutputStream out;
+	private final ByteBuffer target;
+	/** a high surrogate waiting for its low surrogate, or 0 */
+	private char highSurrogate;
+
+	/**
+	 * @param out - The stream to write to, or null.
+	 * @param target - The buffer to put the bytes into, if out is null.
+	 * @return A writer, which must be released after finish().
+	 */
+	static Utf8Writer get(OutputStream out, ByteBuffer target){
+		byte[] buf = (byte[])BUFFERS.get();
+		if(buf == null)
+			buf = new byte[BUFFER_SIZE];
+		else
+			BUFFERS.set(null);
+		return new Utf8Writer(buf, out, target);
+	}
+
+	private Utf8Writer(byte[] buf, OutputStream out, ByteBuffer target){
+		this.buf = buf;
+		this.out = out;
+		this.target = target;
+	}
+
+	/**
+	 * Gives the byte buffer back to the thread, for the next writer.
+	 */
+	void release(){
+		BUFFERS.set(buf);
+	}
+
+	public void write(int c) throws IOException{
+		if(c < 0x80 && highSurrogate == 0 && count < buf.length)
+			buf[count++] = (byte)c;
+		else
+			encode((char)c);
+	}
+
+	public void write(String s) throws IOException{
+		write(s, 0, s.length());
+	}
+
+	public void write(String s, int off, int len) throws IOException{
+		int end = off + len;
+		while(off < end){
+			if(highSurrogate != 0 || count == buf.length){
+				encode(s.charAt(off++));
+				continue;
+			}
+			byte[] b = buf;
+			int p = count;
+			int limit = Math.min(end, off + b.length - p);
+			while(off < limit){
+				char c = s.charAt(off);
+				if(c >= 0x80)
+					break;
+				b[p++] = (byte)c;
+				off++;
+			}
+			count = p;
+			if(off < limit)
+				encode(s.charAt(off++));
+		}
+	}
+
+	public void write(char[] cbuf, int off, int len) throws IOException{
+		int end = off + len;
+		while(off < end){
+			if(highSurrogate != 0 || count == buf.length){
+				encode(cbuf[off++]);
+				continue;
+			}
+			byte[] b = buf;
+			int p = count;
+			int limit = Math.min(end, off + b.length - p);
+			while(off < limit){
+				char c = cbuf[off];
+				if(c >= 0x80)
+					break;
+				b[p++] = (byte)c;
+				off++;
+			}
+			count = p;
+			if(off < limit)
+				encode(cbuf[off++]);
+		}
+	}
+
+	private void encode(char c) throws IOException{
+		if(count + 4 > buf.length)
+			flushBuffer();
+		if(highSurrogate != 0){
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if(Character.isLowSurrogate(c)){
+				int cp = Character.toCodePoint(high, c);
+				buf[count++] = (byte)(0xF0 | (cp >> 18));
+				buf[count++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+				buf[count++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+				buf[count++] = (byte)(0x80 | (cp & 0x3F));
+				return;
+			}
+			buf[count++] = '?';
+		}
+		if(c < 0x80){
+			buf[count++] = (byte)c;
+		}
+		else if(c < 0x800){
+			buf[count++] = (byte)(0xC0 | (c >> 6));
+			buf[count++] = (byte)(0x80 | (c & 0x3F));
+		}
+		else if(Character.isHighSurrogate(c)){
+			highSurrogate = c;
+		}
+		else if(Character.isLowSurrogate(c)){
+			buf[count++] = '?';
+		}
+		else{
+			buf[count++] = (byte)(0xE0 | (c >> 12));
+			buf[count++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+			buf[count++] = (byte)(0x80 | (c & 0x3F));
+		}
+	}
+
+	private void flushBuffer() throws IOException{
+		if(count == 0)
+			return;
+		if(out != null)
+			out.write(buf, 0, count);
+		else
+			target.put(buf, 0, count);
+		count = 0;
+	}
+
+	/**
+	 * Writes out everything buffered, without flushing the stream.
+	 */
+	void finish() throws IOException{
+		if(highSurrogate != 0){
+			highSurrogate = 0;
+			if(count == buf.length)
+				flushBuffer();
+			buf[count++] = '?';
+		}
+		flushBuffer();
+	}
+
+	public void flush() throws IOException{
+		flushBuffer();
+		if(out != null)
+			out.flush();
+	}
+
+	public void close() throws IOException{
+		flush();
+		if(out != null)
+			out.close();
+	}
+}
@@ -0,0 +1,167 @@
+package org.json.simple.parser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The writable properties of a class, used by JSONParser to bind JSON objects directly to instances
+ * of it. A property is a public setter setXxx(value), or a public field that is neither static, final
+ * nor transient; a setter wins over a field of the same name.
+ * <p>
+ * Binders are built once per class with MethodHandles, and cached in a ClassValue.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+class BeanBinder {
+	/** the kinds of properties, the primitive ones are set without boxing */
+	static final int KIND_OBJECT=0;
+	static final int KIND_INT=1;
+	static final int KIND_LONG=2;
+	static final int KIND_DOUBLE=3;
+	static final int KIND_FLOAT=4;
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final ClassValue BINDERS = new ClassValue(){
+		protected Object computeValue(Class type){
+			return new BeanBinder(type);
+		}
+	};
+
+	/** ()Object, or null if the class has no constructor without parameters */
+	private final MethodHandle constructor;
+	private final Map properties = new HashMap();
+
+	/**
+	 * @return The cached binder of the class.
+	 */
+	static BeanBinder get(Class type){
+		return (BeanBinder)BINDERS.get(type);
+	}
+
+	private BeanBinder(Class type){
+		MethodHandle ctor = null;
+		if(!type.isInterface() && !Modifier.isAbstract(type.getModifiers())){
+			try{
+				Constructor c = type.getDeclaredConstructor();
+				setAccessible(c);
+				ctor = LOOKUP.unreflectConstructor(c).asType(MethodType.methodType(Object.class));
+			}
+			catch(NoSuchMethodException e){
+			}
+			catch(IllegalAccessException e){
+			}
+		}
+		this.constructor = ctor;
+
+		Field[] fields = type.getFields();
+		for(int i = 0; i < fields.length; i++){
+			Field f = fields[i];
+			int modifiers = f.getModifiers();
+			if(Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isTransient(modifiers))
+				continue;
+			try{
+				setAccessible(f);
+				properties.put(f.getName(), new Property(LOOKUP.unreflectSetter(f), f.getType(), f.getGenericType()));
+			}
+			catch(IllegalAccessException e){
+			}
+		}
+		Method[] methods = type.getMethods();
+		for(int i = 0; i < methods.length; i++){
+			Method m = methods[i];
+			String name = m.getName();
+			if(Modifier.isStatic(m.getModifiers()) || m.getParameterTypes().length != 1 || name.length() < 4 || !name.startsWith("set") || m.isBridge())
+				continue;
+			try{
+				setAccessible(m);
+				properties.put(propertyName(name.substring(3)),
+					new Property(LOOKUP.unreflect(m), m.getParameterTypes()[0], m.getGenericParameterTypes()[0]));
+			}
+			catch(IllegalAccessException e){
+			}
+		}
+	}
+
+	/**
+	 * The name of a property, from a setter without its prefix: "Name" becomes "name", but "URL" stays
+	 * "URL", like in java.beans.Introspector. BeanWriter in org.json.simple uses the same rule.
+	 */
+	private static String propertyName(String s){
+		if(s.length() > 1 && Character.isUpperCase(s.charAt(1)) && Character.isUpperCase(s.charAt(0)))
+			return s;
+		return Character.toLowerCase(s.charAt(0)) + s.substring(1);
+	}
+
+	/**
+	 * Makes a public member of a class that is not public itself accessible, where the platform allows it.
+	 */
+	private static void setAccessible(AccessibleObject member){
+		try{
+			member.setAccessible(true);
+		}
+		catch(RuntimeException e){
+		}
+	}
+
+	/**
+	 * @return A new instance, or null if the class cannot be instantiated.
+	 * @throws Throwable thrown by the constructor.
+	 */
+	Object newInstance() throws Throwable{
+		if(constructor == null)
+			return null;
+		return (Object)constructor.invokeExact();
+	}
+
+	/**
+	 * @return The property, or null if there is no writable property of that name.
+	 */
+	Property property(String name){
+		return (Property)properties.get(name);
+	}
+
+	static final class Property {
+		final int kind;
+		final Class type;
+		final Type genericType;
+		/** (Object, value)void, with the value type given by the kind */
+		final MethodHandle setter;
+
+		Property(MethodHandle setter, Class type, Type genericType){
+			this.type = type;
+			this.genericType = genericType;
+			Class valueType;
+			if(type == int.class){
+				kind = KIND_INT;
+				valueType = int.class;
+			}
+			else if(type == long.class){
+				kind = KIND_LONG;
+				valueType = long.class;
+			}
+			else if(type == double.class){
+				kind = KIND_DOUBLE;
+				valueType = double.class;
+			}
+			else if(type == float.class){
+				kind = KIND_FLOAT;
+				valueType = float.class;
+			}
+			else{
+				kind = KIND_OBJECT;
+				valueType = Object.class;
+			}
+			this.setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package org.json.simple.parser;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Non-blocking stream processing of UTF-8 encoded JSON text that arrives in fragments,
+ * for example ByteBuffers read from a non-blocking channel.
+ * <p>
+ * Every call to feed() hands the ContentHandler the events for as much of the text as has been
+ * fed so far, and returns NEED_MORE_INPUT instead of blocking when the input ends inside a token.
+ * Only the bytes of the unfinished token are kept between calls, and a string is continued where
+ * its last fragment ended, so that a long one is still scanned once. endOfInput() tells the parser
+ * that the text is complete; only then is the end of the JSON text reported.
+ * <p>
+ * Like with JSONParser.parse(Reader, ContentHandler, boolean), the handler may stop the parsing by
+ * returning false. feed() then returns SUSPENDED, and resume() continues with the input fed so far.
+ * <p>
+ * Please note that JSONFeedParser is NOT thread-safe.
+ *
+ * @see org.json.simple.parser.ContentHandler
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONFeedParser {
+	/** all the input fed so far has been processed */
+	public static final int NEED_MORE_INPUT=0;
+	/** the handler has stopped the parsing, call resume() to continue */
+	public static final int SUSPENDED=1;
+	/** the end of the JSON text has been reached and ContentHandler.endJSON() has been called */
+	public static final int END=2;
+
+	private final JSONParser parser = new JSONParser();
+	private final ContentHandler contentHandler;
+	private boolean inputEnded = false;
+
+	public JSONFeedParser(ContentHandler contentHandler){
+		this.contentHandler = contentHandler;
+		parser.resetFeed();
+	}
+
+	/**
+	 * Reset the parser to the initial state, to parse another JSON text.
+	 */
+	public void reset(){
+		inputEnded = false;
+		parser.resetFeed();
+	}
+
+	/**
+	 * @return The parser used internally, to configure it (numeric mode, key cache).
+	 * 	It must not be used to parse anything else.
+	 */
+	public JSONParser getParser(){
+		return parser;
+	}
+
+	/**
+	 * Appends the remaining bytes of the buffer to the input, and processes as much of the input as possible.
+	 * The bytes are copied as needed, and the position of the buffer is moved to its limit.
+	 *
+	 * @param input
+	 * @return NEED_MORE_INPUT, SUSPENDED or END.
+	 *
+	 * @throws ParseException
+	 * @throws IllegalStateException if endOfInput() has been called.
+	 */
+	public int feed(ByteBuffer input) throws ParseException{
+		if(inputEnded)
+			throw new IllegalStateException("The end of input has been reached.");
+		parser.feed(input);
+		return parse();
+	}
+
+	/**
+	 * Tells the parser that no more input follows, and processes the rest of the input.
+	 *
+	 * @return SUSPENDED or END.
+	 * @throws ParseException if the JSON text is not complete.
+	 */
+	public int endOfInput() throws ParseException{
+		if(!inputEnded){
+			inputEnded = true;
+			parser.endOfInput();
+		}
+		return parse();
+	}
+
+	/**
+	 * Continues after the handler has stopped the parsing, with the input fed so far.
+	 *
+	 * @return NEED_MORE_INPUT, SUSPENDED or END.
+	 * @throws ParseException
+	 */
+	public int resume() throws ParseException{
+		return parse();
+	}
+
+	private int parse() throws ParseException{
+		if(parser.isEnded())
+			return END;
+		if(!parser.parseFed(contentHandler))
+			return NEED_MORE_INPUT;
+		return parser.isEnded() ? END : SUSPENDED;
+	}
+
+	/**
+	 * @return The byte position of the beginning of the current token.
+	 */
+	public long getPosition(){
+		return parser.getPosition();
+	}
+}
@@ -0,0 +1,321 @@
+package org.json.simple.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads JSON Lines (newline-delimited JSON) text: one JSON value per line. Blank lines are skipped.
+ * <p>
+ * Lines are split in one buffer and each record is parsed in place by a single JSONParser,
+ * so nothing is set up again per record. A record that fails to parse does not stop the reader:
+ * the ParseException carries the line number, and the next call continues with the following line.
+ * <p>
+ * The maximum input length of the ParserLimits set on getParser() applies to each line. A longer line
+ * is read to its end without being kept, and next() fails for it with ParseException.ERROR_LIMIT_EXCEEDED.
+ * <p>
+ * Please note that JSONLinesReader is NOT thread-safe.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONLinesReader implements Closeable {
+	private static final int BUFFER_SIZE = 16384;
+
+	private final JSONParser parser = new JSONParser();
+	private final ContainerFactory containerFactory;
+	private final Reader reader;
+	private final InputStream stream;
+	/** the buffer, one of them is null depending on the kind of input */
+	private char[] chars;
+	private byte[] bytes;
+	/** index of the first unread unit in the buffer */
+	private int start;
+	/** index after the last valid unit in the buffer */
+	private int limit;
+	private boolean eof;
+
+	/** bounds of the line of the next record, while lineReady is set */
+	private int lineStart;
+	private int lineEnd;
+	private boolean lineReady;
+	/** set while the line is longer than the maximum input length, its bounds are not kept then */
+	private boolean lineTooLong;
+	/** number of lines read so far */
+	private long lines;
+	/** line of the record returned by the last call to next() */
+	private long lineNumber;
+
+	/**
+	 * @param in - Character input, closed by close().
+	 */
+	public JSONLinesReader(Reader in){
+		this(in, null);
+	}
+
+	/**
+	 * @param in - Character input, closed by close().
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+	 */
+	public JSONLinesReader(Reader in, ContainerFactory containerFactory){
+		this.reader = in;
+		this.stream = null;
+		this.chars = new char[BUFFER_SIZE];
+		this.containerFactory = containerFactory;
+	}
+
+	/**
+	 * @param in - UTF-8 encoded input, closed by close().
+	 */
+	public JSONLinesReader(InputStream in){
+		this(in, null);
+	}
+
+	/**
+	 * @param in - UTF-8 encoded input, closed by close().
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+	 */
+	public JSONLinesReader(InputStream in, ContainerFactory containerFactory){
+		this.reader = null;
+		this.stream = in;
+		this.bytes = new byte[BUFFER_SIZE];
+		this.containerFactory = containerFactory;
+	}
+
+	/**
+	 * @return The parser used for the records, to configure it (numeric mode, key cache).
+	 * 	It must not be used to parse anything else while this reader is in use.
+	 */
+	public JSONParser getParser(){
+		return parser;
+	}
+
+	/**
+	 * @return The line number (starting with 1) of the record returned by the last call to next(), or 0.
+	 */
+	public long getLineNumber(){
+		return lineNumber;
+	}
+
+	/**
+	 * @return true if there is another record.
+	 * @throws IOException
+	 */
+	public boolean hasNext() throws IOException{
+		while(!lineReady){
+			if(!nextLine())
+				return false;
+			lineReady = !isBlank();
+		}
+		return true;
+	}
+
+	/**
+	 * @return The next record: org.json.simple.JSONObject, org.json.simple.JSONArray, java.lang.String,
+	 * 	java.lang.Number, java.lang.Boolean or null (unless a container factory is used).
+	 *
+	 * @throws IOException
+	 * @throws ParseException with the line number of the record, see ParseException.getLineNumber().
+	 * @throws NoSuchElementException if there are no more records.
+	 */
+	public Object next() throws IOException, ParseException{
+		if(!hasNext())
+			throw new NoSuchElementException();
+		lineReady = false;
+		lineNumber = lines;
+		try{
+			if(lineTooLong){
+				long max = maxLineLength();
+				throw ParserLimits.exceeded(max, "maximum input length", max);
+			}
+			if(chars != null)
+				return parser.parse(chars, lineStart, lineEnd - lineStart, containerFactory);
+			return parser.parse(bytes, lineStart, lineEnd - lineStart, containerFactory);
+		}
+		catch(ParseException pe){
+			pe.setLineNumber(lineNumber);
+			throw pe;
+		}
+	}
+
+	/**
+	 * @return An iterator over the remaining records. It throws java.io.UncheckedIOException for
+	 * 	I/O errors, and IllegalStateException with the ParseException as the cause for parse errors.
+	 */
+	public Iterator<Object> iterator(){
+		return new Iterator<Object>(){
+			public boolean hasNext(){
+				try{
+					return JSONLinesReader.this.hasNext();
+				}
+				catch(IOException ie){
+					throw new UncheckedIOException(ie);
+				}
+			}
+
+			public Object next(){
+				try{
+					return JSONLinesReader.this.next();
+				}
+				catch(IOException ie){
+					throw new UncheckedIOException(ie);
+				}
+				catch(ParseException pe){
+					throw new IllegalStateException(pe.getMessage(), pe);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return A sequential stream of the remaining records, which closes this reader when it is closed.
+	 * @see #iterator()
+	 */
+	public Stream<Object> stream(){
+		Stream<Object> records = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), false);
+		return records.onClose(new Runnable(){
+			public void run(){
+				try{
+					close();
+				}
+				catch(IOException ie){
+					throw new UncheckedIOException(ie);
+				}
+			}
+		});
+	}
+
+	public void close() throws IOException{
+		if(reader != null)
+			reader.close();
+		else
+			stream.close();
+	}
+
+	/**
+	 * Finds the bounds of the next line.
+	 *
+	 * @return false at the end of input.
+	 */
+	private boolean nextLine() throws IOException{
+		int scan = start;
+		long max = maxLineLength();
+		lineTooLong = false;
+		for(;;){
+			int nl = indexOfNewline(scan);
+			if(nl >= 0){
+				lineStart = start;
+				lineEnd = nl;
+				start = nl + 1;
+				lines++;
+				if(lineTooLong)
+					shrink();
+				return true;
+			}
+			if(eof){
+				if(start == limit && !lineTooLong)
+					return false;
+				lineStart = start;
+				lineEnd = limit;
+				start = limit;
+				lines++;
+				return true;
+			}
+			if(limit - start > max){
+				// drop what has been read of the line, instead of growing the buffer up to its end
+				lineTooLong = true;
+				start = limit;
+			}
+			scan = limit - start;
+			fill();
+		}
+	}
+
+	private long maxLineLength(){
+		ParserLimits limits = parser.getLimits();
+		return limits == null ? Long.MAX_VALUE : limits.getMaxInputLength();
+	}
+
+	private int indexOfNewline(int from){
+		if(chars != null){
+			char[] b = chars;
+			for(int i = from; i < limit; i++){
+				if(b[i] == '\n')
+					return i;
+			}
+		}
+		else{
+			byte[] b = bytes;
+			for(int i = from; i < limit; i++){
+				if(b[i] == '\n')
+					return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean isBlank(){
+		if(lineTooLong)
+			return false;
+		for(int i = lineStart; i < lineEnd; i++){
+			int ch = chars != null ? chars[i] : bytes[i];
+			if(ch != ' ' && ch != '\t' && ch != '\r')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the unread part of the buffer to its beginning, growing the buffer if it is full, and reads more.
+	 */
+	private void fill() throws IOException{
+		int length = chars != null ? chars.length : bytes.length;
+		int n = limit - start;
+		if(chars != null){
+			char[] b = n == length ? new char[length * 2] : chars;
+			System.arraycopy(chars, start, b, 0, n);
+			chars = b;
+		}
+		else{
+			byte[] b = n == length ? new byte[length * 2] : bytes;
+			System.arraycopy(bytes, start, b, 0, n);
+			bytes = b;
+		}
+		start = 0;
+		limit = n;
+		int count = chars != null ? reader.read(chars, limit, chars.length - limit) : stream.read(bytes, limit, bytes.length - limit);
+		if(count < 0)
+			eof = true;
+		else
+			limit += count;
+	}
+
+	/**
+	 * Drops a buffer that has grown for a line that was too long.
+	 */
+	private void shrink(){
+		int length = chars != null ? chars.length : bytes.length;
+		int n = limit - start;
+		if(length <= BUFFER_SIZE || n > BUFFER_SIZE)
+			return;
+		if(chars != null){
+			char[] b = new char[BUFFER_SIZE];
+			System.arraycopy(chars, start, b, 0, n);
+			chars = b;
+		}
+		else{
+			byte[] b = new byte[BUFFER_SIZE];
+			System.arraycopy(bytes, start, b, 0, n);
+			bytes = b;
+		}
+		start = 0;
+		limit = n;
+	}
+}
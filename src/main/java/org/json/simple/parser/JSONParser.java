@@ -5,13 +5,32 @@
 package org.json.simple.parser;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
-import java.util.LinkedList;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.json.simple.JSONArray;
+import org.json.simple.JSONMetrics;
 import org.json.simple.JSONObject;
 
 
@@ -29,56 +48,1532 @@ public class JSONParser {
 	public static final int S_IN_PAIR_VALUE=5;
 	public static final int S_END=6;
 	public static final int S_IN_ERROR=-1;
+	/** startJSON() has been called, the first token has not been read yet */
+	private static final int S_STARTED=7;
 	
-	private LinkedList handlerStatusStack;
-	private Yylex lexer = new Yylex((Reader)null);
+	/** numbers are java.lang.Long, or java.lang.Double if they have a fraction or an exponent (the default) */
+	public static final int NUMBER_LONG_DOUBLE=0;
+	/** numbers are java.math.BigInteger, or java.math.BigDecimal if they have a fraction or an exponent */
+	public static final int NUMBER_BIG_DECIMAL=1;
+	/** numbers are org.json.simple.JSONNumber, which keeps the text and converts it on first use */
+	public static final int NUMBER_LAZY=2;
+	
+	private static final int INITIAL_STACK_SIZE = 32;
+	
+	private boolean handlerStarted = false;
+	private boolean tokenPushedBack = false;
+	private KeyCache keyCache = new KeyCache();
+	private int numericMode = NUMBER_LONG_DOUBLE;
+	/** the limits, also copied below and into the lexers */
+	private ParserLimits limits = null;
+	private int maxDepth = Integer.MAX_VALUE;
+	private int maxObjectMembers = Integer.MAX_VALUE;
+	private int maxArrayLength = Integer.MAX_VALUE;
+	/** the number of open objects and arrays */
+	private int depth = 0;
+	
+	/** the document being metered for JSONMetrics, or for a flight recorder event */
+	private boolean metering;
+	private Object meterEvent;
+	private long meterStart;
+	private long meterPosition;
+	private int meterDepth;
+	private final int[] tokenCounts = new int[Yytoken.TYPE_COLON + 1];
+	
+	/** the projection of the current tree parse, and the key path of the current member */
+	private Projection projection = null;
+	private String[] path = new String[INITIAL_STACK_SIZE];
+	private int pathDepth = 0;
+	private final int bufferSize;
+	private final Yylex charLexer;
+	private Utf8Lexer byteLexer = null;
+	private Lexer lexer;
 	private Yytoken token = null;
 	private int status = S_INIT;
 	
-	private int peekStatus(LinkedList statusStack){
-		if(statusStack.size()==0)
-			return -1;
-		Integer status=(Integer)statusStack.getFirst();
-		return status.intValue();
+	/*
+	 * Primitive stacks, reused across parse operations. The status stack also carries the state
+	 * of a suspended ContentHandler parse until it is resumed.
+	 */
+	private int[] statusStack = new int[INITIAL_STACK_SIZE];
+	private int statusDepth = 0;
+	private Object[] valueStack = new Object[INITIAL_STACK_SIZE];
+	private int valueDepth = 0;
+	
+	public JSONParser(){
+		this(Yylex.BUFFER_SIZE);
+	}
+	
+	/**
+	 * @param bufferSize - The initial size of the buffer used for Reader or InputStream input,
+	 * 	in characters or bytes. It is only allocated when such input is parsed, and grows as needed.
+	 * 
+	 * @see org.json.simple.parser.JSONParserFactory
+	 */
+	public JSONParser(int bufferSize){
+		if(bufferSize <= 0)
+			throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+		this.bufferSize = bufferSize;
+		this.charLexer = new Yylex((Reader)null, bufferSize);
+		this.lexer = charLexer;
+	}
+	
+	private int peekStatus(){
+		if(statusDepth==0)
+			return -1;
+		return statusStack[statusDepth-1];
+	}
+	
+	private void pushStatus(int status){
+		if(statusDepth==statusStack.length){
+			int[] newStack=new int[statusStack.length*2];
+			System.arraycopy(statusStack, 0, newStack, 0, statusDepth);
+			statusStack=newStack;
+		}
+		statusStack[statusDepth++]=status;
+	}
+	
+	/**
+	 * Pushes the status of a new object or array, unless it would exceed the maximum depth.
+	 */
+	private void pushContainer(int status) throws ParseException{
+		if(++depth > maxDepth)
+			throw ParserLimits.exceeded(getPosition(), "maximum depth", maxDepth);
+		if(depth > meterDepth)
+			meterDepth = depth;
+		pushStatus(status);
+	}
+	
+	/**
+	 * Starts metering a document if JSONMetrics.ENABLED is set or a flight recorder event is enabled;
+	 * tokens are only counted then.
+	 */
+	private void startMeter(){
+		meterEvent = ParseEvents.begin();
+		metering = JSONMetrics.ENABLED || meterEvent != null;
+		meterDepth = 0;
+		if(!metering){
+			lexer.tokenCounts = null;
+			return;
+		}
+		for(int i = 0; i < tokenCounts.length; i++)
+			tokenCounts[i] = 0;
+		lexer.tokenCounts = tokenCounts;
+		meterPosition = lexer.getPosition();
+		meterStart = System.nanoTime();
+	}
+	
+	/**
+	 * @param type - The ContainerFactory, ContentHandler or bound class of the document, or null.
+	 */
+	private void stopMeter(Class type){
+		if(!metering)
+			return;
+		metering = false;
+		lexer.tokenCounts = null;
+		long length = lexer.getPosition() - meterPosition;
+		boolean bytes = lexer instanceof Utf8Lexer;
+		if(JSONMetrics.ENABLED)
+			MetricsBridge.recorder().parsed(length, bytes, tokenCounts, meterDepth, System.nanoTime() - meterStart);
+		if(meterEvent != null){
+			// keys are values too, and come with a colon in valid JSON
+			long nodes = tokenCounts[Yytoken.TYPE_VALUE] - tokenCounts[Yytoken.TYPE_COLON]
+				+ tokenCounts[Yytoken.TYPE_LEFT_BRACE] + tokenCounts[Yytoken.TYPE_LEFT_SQUARE];
+			ParseEvents.end(meterEvent, length, bytes, nodes, meterDepth, type);
+			meterEvent = null;
+		}
+	}
+	
+	private void failMeter(ParseException pe){
+		if(!metering)
+			return;
+		metering = false;
+		meterEvent = null;
+		lexer.tokenCounts = null;
+		if(JSONMetrics.ENABLED)
+			MetricsBridge.recorder().parseFailed(pe, System.nanoTime() - meterStart);
+	}
+	
+	private void popStatus(){
+		statusDepth--;
+	}
+	
+	private Object peekValue(){
+		return valueStack[valueDepth-1];
+	}
+	
+	private void pushValue(Object value){
+		if(valueDepth==valueStack.length){
+			Object[] newStack=new Object[valueStack.length*2];
+			System.arraycopy(valueStack, 0, newStack, 0, valueDepth);
+			valueStack=newStack;
+		}
+		valueStack[valueDepth++]=value;
+	}
+	
+	private Object popValue(){
+		Object value=valueStack[--valueDepth];
+		valueStack[valueDepth]=null;
+		return value;
+	}
+	
+    /**
+     *  Reset the parser to the initial state without resetting the underlying reader.
+     *
+     */
+    public void reset(){
+        token = null;
+        status = S_INIT;
+        handlerStarted = false;
+        tokenPushedBack = false;
+        statusDepth = 0;
+        pathDepth = 0;
+        depth = 0;
+        while(valueDepth > 0)
+            valueStack[--valueDepth] = null;
+    }
+    
+    /**
+     * Reset the parser to the initial state with a new character reader.
+     * 
+     * @param in - The new character reader.
+     * @throws IOException
+     * @throws ParseException
+     */
+	public void reset(Reader in){
+		charLexer.yyreset(in);
+		lexer = charLexer;
+		reset();
+	}
+	
+    /**
+     * Reset the parser to the initial state with a new UTF-8 encoded byte stream.
+     * 
+     * @param in - The new byte stream.
+     */
+	public void reset(InputStream in){
+		byteLexer().yyreset(in);
+		lexer = byteLexer;
+		reset();
+	}
+	
+    /**
+     * Reset the parser to the initial state with new UTF-8 encoded input, the bytes from b[off] to b[off+len-1].
+     * The array is not copied and must not be modified while it is being parsed.
+     * 
+     * @param b
+     * @param off
+     * @param len
+     */
+	public void reset(byte[] b, int off, int len){
+		byteLexer().yyreset(b, off, len);
+		lexer = byteLexer;
+		reset();
+	}
+	
+    /**
+     * Reset the parser to the initial state with new UTF-8 encoded input, the remaining bytes of the buffer.
+     * The position of the buffer is not changed, and its content must not be modified while it is being parsed.
+     * 
+     * @param buffer
+     */
+	public void reset(ByteBuffer buffer){
+		byteLexer().yyreset(buffer);
+		lexer = byteLexer;
+		reset();
+	}
+	
+	/**
+	 * Reset the parser to the initial state with the characters from b[off] to b[off+len-1], which are not copied.
+	 */
+	void reset(char[] b, int off, int len){
+		charLexer.yyreset(b, off, len);
+		lexer = charLexer;
+		reset();
+	}
+	
+	/**
+	 * Prepares the parser for reuse: drops the references to the last input and its values,
+	 * and the buffers that have grown beyond maxBufferSize. The numeric mode and the limits are set back to the default.
+	 */
+	void recycle(int maxBufferSize){
+		setNumericMode(NUMBER_LONG_DOUBLE);
+		setLimits(null);
+		if(keyCache == null)
+			keyCache = new KeyCache();
+		charLexer.release(maxBufferSize);
+		if(byteLexer != null)
+			byteLexer.release(maxBufferSize);
+		lexer = charLexer;
+		reset();
+	}
+	
+	private Utf8Lexer byteLexer(){
+		if(byteLexer == null){
+			byteLexer = new Utf8Lexer(bufferSize);
+			byteLexer.numericMode = numericMode;
+			applyLimits(byteLexer);
+		}
+		return byteLexer;
+	}
+	
+	/**
+	 * Sets the cache used to share String instances between equal object keys. Every parser has its
+	 * own cache by default; a cache may also be shared by several parsers, even across threads.
+	 * 
+	 * @param keyCache - The cache, or null to create a new String for every key.
+	 */
+	public void setKeyCache(KeyCache keyCache){
+		this.keyCache = keyCache;
+	}
+	
+	public KeyCache getKeyCache(){
+		return keyCache;
+	}
+	
+	/**
+	 * Sets how numbers are represented. An integer that does not fit in a long is returned
+	 * as a java.math.BigInteger in the default mode.
+	 * 
+	 * @param numericMode - NUMBER_LONG_DOUBLE, NUMBER_BIG_DECIMAL or NUMBER_LAZY.
+	 */
+	public void setNumericMode(int numericMode){
+		if(numericMode != NUMBER_LONG_DOUBLE && numericMode != NUMBER_BIG_DECIMAL && numericMode != NUMBER_LAZY)
+			throw new IllegalArgumentException("Invalid numeric mode: " + numericMode);
+		this.numericMode = numericMode;
+		charLexer.numericMode = numericMode;
+		if(byteLexer != null)
+			byteLexer.numericMode = numericMode;
+	}
+	
+	public int getNumericMode(){
+		return numericMode;
+	}
+	
+	/**
+	 * Sets the resource limits for untrusted input. The limits are copied: changes to the ParserLimits
+	 * only take effect when it is set again.
+	 * 
+	 * @param limits - The limits, or null for no limits.
+	 */
+	public void setLimits(ParserLimits limits){
+		this.limits = limits;
+		maxDepth = limits == null ? Integer.MAX_VALUE : limits.getMaxDepth();
+		maxObjectMembers = limits == null ? Integer.MAX_VALUE : limits.getMaxObjectMembers();
+		maxArrayLength = limits == null ? Integer.MAX_VALUE : limits.getMaxArrayLength();
+		applyLimits(charLexer);
+		if(byteLexer != null)
+			applyLimits(byteLexer);
+	}
+	
+	public ParserLimits getLimits(){
+		return limits;
+	}
+	
+	private void applyLimits(Lexer l){
+		l.maxInputLength = limits == null ? Long.MAX_VALUE : limits.getMaxInputLength();
+		l.maxStringLength = limits == null ? Integer.MAX_VALUE : limits.getMaxStringLength();
+		l.maxNumberLength = limits == null ? Integer.MAX_VALUE : limits.getMaxNumberLength();
+	}
+	
+	private void checkMembers(Map map) throws ParseException{
+		if(map.size() > maxObjectMembers)
+			throw ParserLimits.exceeded(getPosition(), "maximum object members", maxObjectMembers);
+	}
+	
+	private void checkLength(Collection collection) throws ParseException{
+		if(collection.size() > maxArrayLength)
+			throw ParserLimits.exceeded(getPosition(), "maximum array length", maxArrayLength);
+	}
+	
+	/**
+	 * @return The position of the beginning of the current token,
+	 * 	in characters for text input and in bytes for UTF-8 input.
+	 */
+	public long getPosition(){
+		return lexer.getPosition();
+	}
+	
+	public Object parse(String s) throws ParseException{
+		return parse(s, (ContainerFactory)null);
+	}
+	
+	public Object parse(String s, ContainerFactory containerFactory) throws ParseException{
+		StringReader in=new StringReader(s);
+		try{
+			return parse(in, containerFactory);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
+	public Object parse(Reader in) throws IOException, ParseException{
+		return parse(in, (ContainerFactory)null);
+	}
+	
+	/**
+	 * Parse JSON text into java object from the input source.
+	 * 	
+	 * @param in
+     * @param containerFactory - Use this factory to createyour own JSON object and JSON array containers.
+	 * @return Instance of the following:
+	 *  org.json.simple.JSONObject,
+	 * 	org.json.simple.JSONArray,
+	 * 	java.lang.String,
+	 * 	java.lang.Number,
+	 * 	java.lang.Boolean,
+	 * 	null
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public Object parse(Reader in, ContainerFactory containerFactory) throws IOException, ParseException{
+		reset(in);
+		return parse(containerFactory);
+	}
+	
+	/**
+	 * Parse JSON text into java object from the input source, building only the object members
+	 * selected by the projection. The values of the other members are skipped without being decoded.
+	 * 
+	 * @see #parse(Reader, ContainerFactory)
+	 * 
+	 * @param in
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+	 * @param projection - Selects the members to build, or null to build all of them.
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public Object parse(Reader in, ContainerFactory containerFactory, Projection projection) throws IOException, ParseException{
+		reset(in);
+		return parse(containerFactory, projection);
+	}
+	
+	public Object parse(InputStream in) throws IOException, ParseException{
+		return parse(in, (ContainerFactory)null);
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the input stream.
+	 * The bytes are lexed directly, only string values are decoded.
+	 * 
+	 * @see #parse(Reader, ContainerFactory)
+	 * 
+	 * @param in
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+	 * @return Instance of the following:
+	 *  org.json.simple.JSONObject,
+	 * 	org.json.simple.JSONArray,
+	 * 	java.lang.String,
+	 * 	java.lang.Number,
+	 * 	java.lang.Boolean,
+	 * 	null
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public Object parse(InputStream in, ContainerFactory containerFactory) throws IOException, ParseException{
+		reset(in);
+		return parse(containerFactory);
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the input stream, building only the object
+	 * members selected by the projection.
+	 * 
+	 * @see #parse(Reader, ContainerFactory, Projection)
+	 */
+	public Object parse(InputStream in, ContainerFactory containerFactory, Projection projection) throws IOException, ParseException{
+		reset(in);
+		return parse(containerFactory, projection);
+	}
+	
+	/**
+	 * Parse JSON text directly into an instance of the given type, without building a JSONObject or
+	 * JSONArray tree first.
+	 * <p>
+	 * A JSON object is bound to a class with a constructor without parameters through its public setters
+	 * and public fields, see the property names of java.beans. Members without a matching property are
+	 * skipped without being decoded. Numbers are stored into int, long, double and float properties without
+	 * boxing. Integral types take numbers without a fraction in their range, like 3, 3.0 or 3e2, and float and
+	 * double take numbers that do not overflow them; anything else is a ParseException. The following types are bound as well: String, boolean, the other primitive types, their
+	 * wrappers, BigInteger, BigDecimal, enums (by name), arrays, Collections and Maps with String keys
+	 * (whose type parameters give the type of their elements and values), and Object, which gets the same
+	 * value as with parse(Reader).
+	 * 
+	 * @param in
+	 * @param type
+	 * @return The value, or null for JSON null.
+	 * 
+	 * @throws IOException
+	 * @throws ParseException if the text is not valid JSON, or if a value does not fit the type it is bound to.
+	 * @throws IllegalArgumentException if an object is bound to a class that has no constructor without parameters.
+	 */
+	public <T> T parse(Reader in, Class<T> type) throws IOException, ParseException{
+		reset(in);
+		return (T)bind(type);
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text directly into an instance of the given type.
+	 * 
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(InputStream in, Class<T> type) throws IOException, ParseException{
+		reset(in);
+		return (T)bind(type);
+	}
+	
+	/**
+	 * Parse JSON text directly into an instance of the given type.
+	 * 
+	 * @see #parse(Reader, Class)
+	 */
+	public <T> T parse(String s, Class<T> type) throws ParseException{
+		try{
+			return parse(new StringReader(s), type);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
+	public Object parse(byte[] b, int off, int len) throws ParseException{
+		return parse(b, off, len, (ContainerFactory)null);
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the bytes b[off] to b[off+len-1].
+	 * 
+	 * @see #parse(InputStream, ContainerFactory)
+	 */
+	public Object parse(byte[] b, int off, int len, ContainerFactory containerFactory) throws ParseException{
+		reset(b, off, len);
+		return parseInMemory(containerFactory);
+	}
+	
+	public Object parse(ByteBuffer buffer) throws ParseException{
+		return parse(buffer, (ContainerFactory)null);
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text into java object from the remaining bytes of the buffer.
+	 * The position of the buffer is not changed.
+	 * 
+	 * @see #parse(InputStream, ContainerFactory)
+	 */
+	public Object parse(ByteBuffer buffer, ContainerFactory containerFactory) throws ParseException{
+		reset(buffer);
+		return parseInMemory(containerFactory);
+	}
+	
+	public Object parse(Path file) throws IOException, ParseException{
+		return parse(file, (ContainerFactory)null);
+	}
+	
+	/**
+	 * Parse a UTF-8 encoded JSON file into java object. The file is mapped into memory
+	 * window by window and lexed in place.
+	 * 
+	 * @see #parse(InputStream, ContainerFactory)
+	 * 
+	 * @param file
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public Object parse(Path file, ContainerFactory containerFactory) throws IOException, ParseException{
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try{
+			byteLexer().yyreset(channel);
+			lexer = byteLexer;
+			reset();
+			return parse(containerFactory);
+		}
+		finally{
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Tells whether another value follows in the current input, for input that holds several
+	 * concatenated JSON values, such as {"a":1}{"b":2} or values separated by white space.
+	 * The input is set with one of the reset() methods. The token that is read ahead is kept
+	 * for the next call to parseNext().
+	 * 
+	 * @see #parseNext(ContainerFactory)
+	 * 
+	 * @return false if only white space is left.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public boolean hasNext() throws IOException, ParseException{
+		if(!tokenPushedBack){
+			lexer.keyCache = null;
+			token = lexer.yylex();
+			tokenPushedBack = true;
+		}
+		return lexer.token.type != Yytoken.TYPE_EOF;
+	}
+	
+	public Object parseNext() throws IOException, ParseException{
+		return parseNext((ContainerFactory)null);
+	}
+	
+	/**
+	 * Parse the next of several concatenated JSON values in the current input. Unlike parse(),
+	 * it does not reset the input, and does not read beyond the end of the value: the lexer state
+	 * and its buffered input are kept for the following call.
+	 * <p>
+	 * A typical loop:
+	 * <pre>
+	 * parser.reset(in);
+	 * while(parser.hasNext())
+	 *     process(parser.parseNext());
+	 * </pre>
+	 * 
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+	 * @return The next value, see parse(Reader, ContainerFactory).
+	 * 
+	 * @throws IOException
+	 * @throws ParseException if the next value is not valid JSON, or if there is no next value.
+	 */
+	public Object parseNext(ContainerFactory containerFactory) throws IOException, ParseException{
+		boolean pushedBack = tokenPushedBack;
+		reset();
+		tokenPushedBack = pushedBack;
+		startMeter();
+		try{
+			Object value = parse(containerFactory, true);
+			stopMeter(containerFactory == null ? null : containerFactory.getClass());
+			return value;
+		}
+		catch(ParseException pe){
+			failMeter(pe);
+			throw pe;
+		}
+	}
+	
+	/**
+	 * @return An iterator over the remaining values of the current input, see parseNext(ContainerFactory).
+	 * 	It throws java.io.UncheckedIOException for I/O errors, and IllegalStateException with the
+	 * 	ParseException as the cause for parse errors.
+	 */
+	public Iterator<Object> iterator(final ContainerFactory containerFactory){
+		return new Iterator<Object>(){
+			public boolean hasNext(){
+				try{
+					return JSONParser.this.hasNext();
+				}
+				catch(IOException ie){
+					throw new UncheckedIOException(ie);
+				}
+				catch(ParseException pe){
+					throw new IllegalStateException(pe.getMessage(), pe);
+				}
+			}
+			
+			public Object next(){
+				if(!hasNext())
+					throw new NoSuchElementException();
+				try{
+					return parseNext(containerFactory);
+				}
+				catch(IOException ie){
+					throw new UncheckedIOException(ie);
+				}
+				catch(ParseException pe){
+					throw new IllegalStateException(pe.getMessage(), pe);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Parse JSON text lazily, for reading a few values out of a large document.
+	 * <p>
+	 * The whole text is validated in one pass that builds no values. Objects and arrays are returned
+	 * as java.util.Map and java.util.List implementations (also JSONAware and JSONStreamAware, but not
+	 * JSONObject and JSONArray) that keep a reference to the text. A container records the positions of its
+	 * members when it is first accessed, and decodes a member only when get() or iteration touches it.
+	 * <p>
+	 * Since numbers are converted on access, a number that does not fit in a long or a double throws
+	 * NumberFormatException from the accessing method rather than from this one.
+	 * 
+	 * @see #parse(String)
+	 * 
+	 * @param s
+	 * @return Instance of the following:
+	 * 	java.util.Map,
+	 * 	java.util.List,
+	 * 	java.lang.String,
+	 * 	java.lang.Number,
+	 * 	java.lang.Boolean,
+	 * 	null
+	 * 
+	 * @throws ParseException
+	 */
+	public Object parseLazy(String s) throws ParseException{
+		return parseLazy(new Yylex(s));
+	}
+	
+	/**
+	 * Parse UTF-8 encoded JSON text lazily from the bytes b[off] to b[off+len-1].
+	 * The array is not copied and must not be modified while the result is in use.
+	 * 
+	 * @see #parseLazy(String)
+	 */
+	public Object parseLazy(byte[] b, int off, int len) throws ParseException{
+		Utf8Lexer source = new Utf8Lexer();
+		source.yyreset(b, off, len);
+		return parseLazy(source);
+	}
+	
+	/**
+	 * Parse the JSON text from the characters b[off] to b[off+len-1], which are not copied.
+	 */
+	Object parse(char[] b, int off, int len, ContainerFactory containerFactory) throws ParseException{
+		reset(b, off, len);
+		return parseInMemory(containerFactory);
+	}
+	
+	private Object parseLazy(Lexer source) throws ParseException{
+		source.numericMode = numericMode;
+		applyLimits(source);
+		lexer = source;
+		reset();
+		source.skipValues = true;
+		try{
+			parseInMemory(VALIDATOR);
+		}
+		finally{
+			source.skipValues = false;
+			lexer = charLexer;
+		}
+		return new LazyDocument(source).valueAt(0);
+	}
+	
+	/**
+	 * Extract the values at the given JSON Pointer (RFC 6901) paths, for example "/header/type".
+	 * <p>
+	 * Only the values on the way to a requested path are looked at: any other object member or
+	 * array element is skipped by counting brackets and quotes, without decoding its strings or
+	 * numbers or building containers for it. Skipped text is therefore not validated. Parsing stops
+	 * as soon as every path has been resolved, and the rest of the input is not read.
+	 * 
+	 * @param in
+	 * @param jsonPointers - "" denotes the whole text.
+	 * @return A map from each pointer that was found to its value (org.json.simple.JSONObject,
+	 * 	org.json.simple.JSONArray, java.lang.String, java.lang.Number, java.lang.Boolean or null).
+	 * 	Pointers that are not present in the text are left out.
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 * @throws IllegalArgumentException if a pointer is not empty and does not start with '/'.
+	 */
+	public Map extract(Reader in, String... jsonPointers) throws IOException, ParseException{
+		reset(in);
+		return extract(jsonPointers);
+	}
+	
+	/**
+	 * Extract the values at the given JSON Pointer paths from UTF-8 encoded JSON text.
+	 * 
+	 * @see #extract(Reader, String...)
+	 */
+	public Map extract(InputStream in, String... jsonPointers) throws IOException, ParseException{
+		reset(in);
+		return extract(jsonPointers);
+	}
+	
+	/**
+	 * Extract the values at the given JSON Pointer paths from JSON text.
+	 * 
+	 * @see #extract(Reader, String...)
+	 */
+	public Map extract(String s, String... jsonPointers) throws ParseException{
+		reset(new StringReader(s));
+		try{
+			return extract(jsonPointers);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
+	private Map extract(String[] jsonPointers) throws IOException, ParseException{
+		String[][] paths = new String[jsonPointers.length][];
+		int[] candidates = new int[jsonPointers.length];
+		for(int i = 0; i < jsonPointers.length; i++){
+			paths[i] = parsePointer(jsonPointers[i]);
+			candidates[i] = i;
+		}
+		Map result = new JSONObject();
+		if(jsonPointers.length == 0)
+			return result;
+		
+		int[] remaining = new int[]{jsonPointers.length};
+		try{
+			nextToken();
+			extract(jsonPointers, paths, candidates, candidates.length, 0, remaining, result);
+		}
+		finally{
+			lexer.skipValues = false;
+		}
+		return result;
+	}
+	
+	/**
+	 * Visits the value whose first token is the current token.
+	 * 
+	 * @param candidates - Indexes of the pointers whose first depth reference tokens match the path to this value.
+	 * @param remaining - Number of pointers that are not resolved yet; visiting stops when it drops to zero.
+	 */
+	private void extract(String[] pointers, String[][] paths, int[] candidates, int count, int depth, int[] remaining, Map result)
+		throws IOException, ParseException{
+		boolean complete = false;
+		for(int i = 0; i < count; i++){
+			if(paths[candidates[i]].length == depth)
+				complete = true;
+		}
+		if(complete){
+			Object value = parseSubtree();
+			for(int i = 0; i < count; i++){
+				int p = candidates[i];
+				String[] path = paths[p];
+				Object v = value;
+				int d = depth;
+				while(d < path.length && v != null){
+					v = child(v, path[d++]);
+				}
+				if(d == path.length && (v != null || path.length == depth || isMember(value, path, depth))){
+					if(!result.containsKey(pointers[p]))
+						remaining[0]--;
+					result.put(pointers[p], v);
+				}
+			}
+			return;
+		}
+		
+		int[] next = new int[count];
+		switch(token.type){
+		case Yytoken.TYPE_LEFT_BRACE:
+			for(;;){
+				lexer.skipValues = false;
+				nextToken();
+				switch(token.type){
+				case Yytoken.TYPE_RIGHT_BRACE:
+					return;
+				case Yytoken.TYPE_COMMA:
+					break;
+				case Yytoken.TYPE_VALUE:
+					if(!(token.value instanceof String))
+						throw unexpectedToken();
+					String key = (String)token.value;
+					int n = 0;
+					for(int i = 0; i < count; i++){
+						if(paths[candidates[i]][depth].equals(key))
+							next[n++] = candidates[i];
+					}
+					lexer.skipValues = n == 0;
+					do{
+						nextToken();
+					}while(token.type == Yytoken.TYPE_COLON);
+					if(n == 0)
+						skipValue();
+					else
+						extract(pointers, paths, next, n, depth + 1, remaining, result);
+					if(remaining[0] == 0)
+						return;
+					break;
+				default:
+					throw unexpectedToken();
+				}
+			}
+		case Yytoken.TYPE_LEFT_SQUARE:
+			int index = 0;
+			for(;;){
+				String element = String.valueOf(index);
+				int n = 0;
+				for(int i = 0; i < count; i++){
+					if(paths[candidates[i]][depth].equals(element))
+						next[n++] = candidates[i];
+				}
+				lexer.skipValues = n == 0;
+				nextToken();
+				switch(token.type){
+				case Yytoken.TYPE_RIGHT_SQUARE:
+					lexer.skipValues = false;
+					return;
+				case Yytoken.TYPE_COMMA:
+					break;
+				case Yytoken.TYPE_VALUE:
+				case Yytoken.TYPE_LEFT_BRACE:
+				case Yytoken.TYPE_LEFT_SQUARE:
+					if(n == 0)
+						skipValue();
+					else
+						extract(pointers, paths, next, n, depth + 1, remaining, result);
+					index++;
+					if(remaining[0] == 0)
+						return;
+					break;
+				default:
+					throw unexpectedToken();
+				}
+			}
+		case Yytoken.TYPE_VALUE:
+			return;
+		default:
+			throw unexpectedToken();
+		}
+	}
+	
+	/**
+	 * Skips the value whose first token is the current token.
+	 */
+	private void skipValue() throws IOException, ParseException{
+		switch(token.type){
+		case Yytoken.TYPE_LEFT_BRACE:
+		case Yytoken.TYPE_LEFT_SQUARE:
+			if(!lexer.skipContainer()){
+				nextToken();
+				throw unexpectedToken();
+			}
+			break;
+		case Yytoken.TYPE_VALUE:
+			break;
+		default:
+			throw unexpectedToken();
+		}
+	}
+	
+	/**
+	 * Builds the value whose first token is the current token, leaving the lexer right after it.
+	 */
+	private Object parseSubtree() throws IOException, ParseException{
+		return parseSubtree((ContainerFactory)null);
+	}
+	
+	private Object parseSubtree(ContainerFactory containerFactory) throws IOException, ParseException{
+		lexer.skipValues = false;
+		int outerDepth = depth;
+		reset();
+		depth = outerDepth;
+		tokenPushedBack = true;
+		return parse(containerFactory, true);
+	}
+	
+	private static Object child(Object value, String referenceToken){
+		if(value instanceof Map)
+			return ((Map)value).get(referenceToken);
+		if(value instanceof List){
+			List list = (List)value;
+			int index = arrayIndex(referenceToken);
+			if(index >= 0 && index < list.size())
+				return list.get(index);
+		}
+		return null;
+	}
+	
+	/**
+	 * Tells a member whose value is null from a missing one.
+	 */
+	private static boolean isMember(Object value, String[] path, int depth){
+		for(int d = depth; d < path.length - 1; d++)
+			value = child(value, path[d]);
+		String last = path[path.length - 1];
+		if(value instanceof Map)
+			return ((Map)value).containsKey(last);
+		if(value instanceof List){
+			int index = arrayIndex(last);
+			return index >= 0 && index < ((List)value).size();
+		}
+		return false;
+	}
+	
+	private static int arrayIndex(String referenceToken){
+		int n = referenceToken.length();
+		if(n == 0 || n > 9 || (n > 1 && referenceToken.charAt(0) == '0'))
+			return -1;
+		int index = 0;
+		for(int i = 0; i < n; i++){
+			char ch = referenceToken.charAt(i);
+			if(ch < '0' || ch > '9')
+				return -1;
+			index = index * 10 + (ch - '0');
+		}
+		return index;
+	}
+	
+	/**
+	 * Splits a JSON Pointer into its unescaped reference tokens.
+	 */
+	static String[] parsePointer(String pointer){
+		if(pointer.length() == 0)
+			return new String[0];
+		if(pointer.charAt(0) != '/')
+			throw new IllegalArgumentException("Invalid JSON Pointer: " + pointer);
+		ArrayList tokens = new ArrayList();
+		int start = 1;
+		for(;;){
+			int end = pointer.indexOf('/', start);
+			String referenceToken = pointer.substring(start, end < 0 ? pointer.length() : end);
+			if(referenceToken.indexOf('~') >= 0)
+				referenceToken = referenceToken.replace("~1", "/").replace("~0", "~");
+			tokens.add(referenceToken);
+			if(end < 0)
+				break;
+			start = end + 1;
+		}
+		return (String[])tokens.toArray(new String[tokens.size()]);
+	}
+	
+	/**
+	 * Parse the object of the current input into the record, which has been cleared.
+	 */
+	void parseRecord(JSONRecord record) throws IOException, ParseException{
+		parseSchema(record.getSchema(), record, null, null);
+	}
+	
+	/**
+	 * Parse the object of the current input into a container, with the members of the schema only.
+	 */
+	Map parseRecord(JSONSchema schema, ContainerFactory containerFactory) throws IOException, ParseException{
+		Map map = createObjectContainer(containerFactory);
+		parseSchema(schema, null, map, containerFactory);
+		return map;
+	}
+	
+	private void parseSchema(JSONSchema schema, JSONRecord record, Map map, ContainerFactory containerFactory) throws IOException, ParseException{
+		startMeter();
+		try{
+			nextToken();
+			if(token.type != Yytoken.TYPE_LEFT_BRACE)
+				throw unexpectedToken();
+			enter();
+			parseMembers(schema, record, map, containerFactory);
+			depth--;
+			nextToken();
+			if(token.type != Yytoken.TYPE_EOF)
+				throw unexpectedToken();
+			stopMeter(record != null ? JSONRecord.class : containerFactory == null ? null : containerFactory.getClass());
+		}
+		catch(ParseException pe){
+			failMeter(pe);
+			throw pe;
+		}
+		finally{
+			lexer.keySchema = null;
+			lexer.primitiveNumbers = false;
+			lexer.skipValues = false;
+		}
+	}
+	
+	/**
+	 * Reads the members of an object up to its closing brace into either the record or the map.
+	 * Keys are matched against the schema by the lexer, members that are not in the schema are skipped.
+	 */
+	private void parseMembers(JSONSchema schema, JSONRecord record, Map map, ContainerFactory containerFactory) throws IOException, ParseException{
+		Lexer l = lexer;
+		for(;;){
+			l.keySchema = schema;
+			l.primitiveNumbers = false;
+			token = l.yylex();
+			l.keySchema = null;
+			switch(token.type){
+			case Yytoken.TYPE_RIGHT_BRACE:
+				return;
+			case Yytoken.TYPE_COMMA:
+				break;
+			case Yytoken.TYPE_VALUE:
+				if(token.value != Lexer.SKIPPED_STRING)
+					throw unexpectedToken();
+				int index = l.keyIndex;
+				if(index < 0){
+					skipMember();
+					break;
+				}
+				int type = schema.getType(index);
+				l.primitiveNumbers = type == JSONSchema.LONG || type == JSONSchema.DOUBLE;
+				do{
+					token = l.yylex();
+				}while(token.type == Yytoken.TYPE_COLON);
+				l.primitiveNumbers = false;
+				parseMember(schema, index, type, record, map, containerFactory);
+				break;
+			default:
+				throw unexpectedToken();
+			}
+		}
+	}
+	
+	private void parseMember(JSONSchema schema, int index, int type, JSONRecord record, Map map, ContainerFactory containerFactory) throws IOException, ParseException{
+		Object value = token.value;
+		if(token.type == Yytoken.TYPE_VALUE && value == null){
+			if(map != null)
+				map.put(schema.getName(index), null);
+			return;
+		}
+		switch(type){
+		case JSONSchema.STRING:
+			if(token.type != Yytoken.TYPE_VALUE || !(value instanceof String))
+				throw unexpectedToken();
+			if(map != null)
+				map.put(schema.getName(index), value);
+			else
+				record.setObject(index, value);
+			return;
+		case JSONSchema.LONG:
+			if(token.type != Yytoken.TYPE_VALUE || value != Lexer.PRIMITIVE_NUMBER)
+				throw unexpectedToken();
+			long l = exactLong(Long.MIN_VALUE, Long.MAX_VALUE);
+			if(map != null)
+				map.put(schema.getName(index), Long.valueOf(l));
+			else
+				record.setLong(index, l);
+			return;
+		case JSONSchema.DOUBLE:
+			if(token.type != Yytoken.TYPE_VALUE || value != Lexer.PRIMITIVE_NUMBER)
+				throw unexpectedToken();
+			if(map != null)
+				map.put(schema.getName(index), Double.valueOf(lexer.doubleValue()));
+			else
+				record.setDouble(index, lexer.doubleValue());
+			return;
+		case JSONSchema.BOOLEAN:
+			if(token.type != Yytoken.TYPE_VALUE || !(value instanceof Boolean))
+				throw unexpectedToken();
+			if(map != null)
+				map.put(schema.getName(index), value);
+			else
+				record.setLong(index, ((Boolean)value).booleanValue() ? 1 : 0);
+			return;
+		case JSONSchema.OBJECT:
+			if(token.type != Yytoken.TYPE_LEFT_BRACE)
+				throw unexpectedToken();
+			enter();
+			if(map != null){
+				Map child = createObjectContainer(containerFactory);
+				map.put(schema.getName(index), child);
+				parseMembers(schema.getSchema(index), null, child, containerFactory);
+			}
+			else{
+				parseMembers(schema.getSchema(index), record.record(index), null, null);
+			}
+			depth--;
+			return;
+		default:
+			if(token.type != Yytoken.TYPE_VALUE)
+				value = parseSubtree(containerFactory);
+			if(map != null)
+				map.put(schema.getName(index), value);
+			else
+				record.setObject(index, value);
+		}
+	}
+	
+	private Object bind(Class type) throws IOException, ParseException{
+		startMeter();
+		try{
+			bindToken(type);
+			Object value = bindValue(type, type);
+			nextToken();
+			if(token.type != Yytoken.TYPE_EOF)
+				throw unexpectedToken();
+			stopMeter(type);
+			return value;
+		}
+		catch(ParseException pe){
+			failMeter(pe);
+			throw pe;
+		}
+		finally{
+			lexer.primitiveNumbers = false;
+			lexer.numericMode = numericMode;
+			lexer.skipValues = false;
+		}
+	}
+	
+	/**
+	 * Reads the next token of a value that is bound to the given type. Numbers are kept unboxed in
+	 * the lexer for numeric types, and are read exactly for BigInteger and BigDecimal.
+	 */
+	private void bindToken(Class type) throws IOException, ParseException{
+		Lexer l = lexer;
+		l.keyCache = null;
+		l.primitiveNumbers = isNumeric(type);
+		l.numericMode = type == BigDecimal.class || type == BigInteger.class ? NUMBER_BIG_DECIMAL : numericMode;
+		token = l.yylex();
+	}
+	
+	private static boolean isNumeric(Class type){
+		return type == int.class || type == long.class || type == double.class || type == float.class
+			|| type == short.class || type == byte.class || type == Integer.class || type == Long.class
+			|| type == Double.class || type == Float.class || type == Short.class || type == Byte.class;
+	}
+	
+	/**
+	 * Binds the value whose first token is the current token.
+	 */
+	private Object bindValue(Class type, Type genericType) throws IOException, ParseException{
+		switch(token.type){
+		case Yytoken.TYPE_VALUE:
+			return convert(token.value, type);
+		case Yytoken.TYPE_LEFT_BRACE:
+			if(type == Object.class)
+				return parseSubtree();
+			if(Map.class.isAssignableFrom(type)){
+				Map map = type.isAssignableFrom(JSONObject.class) ? new JSONObject() : (Map)newInstance(type);
+				enter();
+				bindMap(map, typeArgument(genericType, 1));
+				depth--;
+				return map;
+			}
+			if(type.isArray() || type.isPrimitive() || Collection.class.isAssignableFrom(type) || type.getName().startsWith("java."))
+				throw unexpectedToken();
+			enter();
+			Object bean = bindBean(type);
+			depth--;
+			return bean;
+		case Yytoken.TYPE_LEFT_SQUARE:
+			if(type == Object.class)
+				return parseSubtree();
+			if(type.isArray()){
+				Type elementType = genericType instanceof GenericArrayType ? ((GenericArrayType)genericType).getGenericComponentType() : type.getComponentType();
+				enter();
+				List elements = (List)bindCollection(new ArrayList(), elementType);
+				depth--;
+				Object array = Array.newInstance(type.getComponentType(), elements.size());
+				for(int i = 0; i < elements.size(); i++)
+					Array.set(array, i, elements.get(i));
+				return array;
+			}
+			Collection collection;
+			if(type.isAssignableFrom(ArrayList.class))
+				collection = new ArrayList();
+			else if(type.isAssignableFrom(LinkedHashSet.class))
+				collection = new LinkedHashSet();
+			else if(Collection.class.isAssignableFrom(type))
+				collection = (Collection)newInstance(type);
+			else
+				throw unexpectedToken();
+			enter();
+			bindCollection(collection, typeArgument(genericType, 0));
+			depth--;
+			return collection;
+		default:
+			throw unexpectedToken();
+		}
 	}
 	
-    /**
-     *  Reset the parser to the initial state without resetting the underlying reader.
-     *
-     */
-    public void reset(){
-        token = null;
-        status = S_INIT;
-        handlerStatusStack = null;
-    }
-    
-    /**
-     * Reset the parser to the initial state with a new character reader.
-     * 
-     * @param in - The new character reader.
-     * @throws IOException
-     * @throws ParseException
-     */
-	public void reset(Reader in){
-		lexer.yyreset(in);
-		reset();
+	/**
+	 * Counts an object or array that is bound or parsed against a schema, unless it would exceed the maximum depth.
+	 */
+	private void enter() throws ParseException{
+		if(++depth > maxDepth)
+			throw ParserLimits.exceeded(getPosition(), "maximum depth", maxDepth);
+		if(depth > meterDepth)
+			meterDepth = depth;
+	}
+	
+	private Object bindBean(Class type) throws IOException, ParseException{
+		BeanBinder binder = BeanBinder.get(type);
+		Object bean = newInstance(type);
+		for(;;){
+			lexer.keyCache = keyCache;
+			lexer.primitiveNumbers = false;
+			token = lexer.yylex();
+			switch(token.type){
+			case Yytoken.TYPE_RIGHT_BRACE:
+				return bean;
+			case Yytoken.TYPE_COMMA:
+				break;
+			case Yytoken.TYPE_VALUE:
+				if(!(token.value instanceof String))
+					throw unexpectedToken();
+				BeanBinder.Property property = binder.property((String)token.value);
+				if(property == null){
+					skipMember();
+					break;
+				}
+				do{
+					bindToken(property.type);
+				}while(token.type == Yytoken.TYPE_COLON);
+				bindProperty(bean, property);
+				break;
+			default:
+				throw unexpectedToken();
+			}
+		}
+	}
+	
+	private void bindProperty(Object bean, BeanBinder.Property property) throws IOException, ParseException{
+		Object value = null;
+		int kind = property.kind;
+		boolean number = token.type == Yytoken.TYPE_VALUE && token.value == Lexer.PRIMITIVE_NUMBER;
+		if(kind != BeanBinder.KIND_OBJECT){
+			if(!number)
+				throw unexpectedToken();
+		}
+		else{
+			value = bindValue(property.type, property.genericType);
+			if(value == null && property.type.isPrimitive())
+				throw unexpectedToken();
+		}
+		try{
+			switch(kind){
+			case BeanBinder.KIND_INT:
+				property.setter.invokeExact(bean, (int)exactLong(Integer.MIN_VALUE, Integer.MAX_VALUE));
+				break;
+			case BeanBinder.KIND_LONG:
+				property.setter.invokeExact(bean, exactLong(Long.MIN_VALUE, Long.MAX_VALUE));
+				break;
+			case BeanBinder.KIND_DOUBLE:
+				property.setter.invokeExact(bean, finiteDouble());
+				break;
+			case BeanBinder.KIND_FLOAT:
+				property.setter.invokeExact(bean, finiteFloat());
+				break;
+			default:
+				property.setter.invokeExact(bean, value);
+			}
+		}
+		catch(ParseException pe){
+			throw pe;
+		}
+		catch(RuntimeException e){
+			throw e;
+		}
+		catch(Error e){
+			throw e;
+		}
+		catch(Throwable t){
+			throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_EXCEPTION, t);
+		}
+	}
+	
+	private Map bindMap(Map map, Type valueType) throws IOException, ParseException{
+		Class valueClass = rawType(valueType);
+		for(;;){
+			lexer.keyCache = keyCache;
+			lexer.primitiveNumbers = false;
+			token = lexer.yylex();
+			switch(token.type){
+			case Yytoken.TYPE_RIGHT_BRACE:
+				return map;
+			case Yytoken.TYPE_COMMA:
+				break;
+			case Yytoken.TYPE_VALUE:
+				if(!(token.value instanceof String))
+					throw unexpectedToken();
+				String key = (String)token.value;
+				do{
+					bindToken(valueClass);
+				}while(token.type == Yytoken.TYPE_COLON);
+				map.put(key, bindValue(valueClass, valueType));
+				checkMembers(map);
+				break;
+			default:
+				throw unexpectedToken();
+			}
+		}
+	}
+	
+	private Collection bindCollection(Collection collection, Type elementType) throws IOException, ParseException{
+		Class elementClass = rawType(elementType);
+		for(;;){
+			bindToken(elementClass);
+			switch(token.type){
+			case Yytoken.TYPE_RIGHT_SQUARE:
+				return collection;
+			case Yytoken.TYPE_COMMA:
+				break;
+			default:
+				Object element = bindValue(elementClass, elementType);
+				if(element == null && elementClass.isPrimitive())
+					throw unexpectedToken();
+				collection.add(element);
+				checkLength(collection);
+			}
+		}
 	}
 	
 	/**
-	 * @return The position of the beginning of the current token.
+	 * Converts a single token value to the type it is bound to.
 	 */
-	public int getPosition(){
-		return lexer.getPosition();
+	private Object convert(Object value, Class type) throws ParseException{
+		if(value == Lexer.PRIMITIVE_NUMBER){
+			if(type == int.class || type == Integer.class)
+				return Integer.valueOf((int)exactLong(Integer.MIN_VALUE, Integer.MAX_VALUE));
+			if(type == long.class || type == Long.class)
+				return Long.valueOf(exactLong(Long.MIN_VALUE, Long.MAX_VALUE));
+			if(type == double.class || type == Double.class)
+				return Double.valueOf(finiteDouble());
+			if(type == float.class || type == Float.class)
+				return Float.valueOf(finiteFloat());
+			if(type == short.class || type == Short.class)
+				return Short.valueOf((short)exactLong(Short.MIN_VALUE, Short.MAX_VALUE));
+			return Byte.valueOf((byte)exactLong(Byte.MIN_VALUE, Byte.MAX_VALUE));
+		}
+		if(value == null){
+			if(!type.isPrimitive())
+				return null;
+		}
+		else if(type.isInstance(value) || (type == boolean.class && value instanceof Boolean)){
+			return value;
+		}
+		else if(value instanceof String){
+			String s = (String)value;
+			if((type == char.class || type == Character.class) && s.length() == 1)
+				return Character.valueOf(s.charAt(0));
+			if(type.isEnum()){
+				try{
+					return Enum.valueOf(type, s);
+				}
+				catch(IllegalArgumentException e){
+					throw unexpectedToken();
+				}
+			}
+		}
+		else if(type == BigDecimal.class && value instanceof BigInteger){
+			return new BigDecimal((BigInteger)value);
+		}
+		throw unexpectedToken();
 	}
 	
-	public Object parse(String s) throws ParseException{
-		return parse(s, (ContainerFactory)null);
+	/**
+	 * @return The number just scanned, which must be integral and between min and max.
+	 */
+	private long exactLong(long min, long max) throws ParseException{
+		long v;
+		try{
+			v = lexer.longValueExact();
+		}
+		catch(ArithmeticException e){
+			throw unexpectedToken();
+		}
+		if(v < min || v > max)
+			throw unexpectedToken();
+		return v;
 	}
 	
-	public Object parse(String s, ContainerFactory containerFactory) throws ParseException{
-		StringReader in=new StringReader(s);
+	/**
+	 * @return The number just scanned, which must not overflow a double.
+	 */
+	private double finiteDouble() throws ParseException{
+		double d = lexer.doubleValue();
+		if(Double.isInfinite(d))
+			throw unexpectedToken();
+		return d;
+	}
+	
+	/**
+	 * @return The number just scanned, which must not overflow a float.
+	 */
+	private float finiteFloat() throws ParseException{
+		float f = (float)finiteDouble();
+		if(Float.isInfinite(f))
+			throw unexpectedToken();
+		return f;
+	}
+	
+	private Object newInstance(Class type) throws ParseException{
+		Object instance;
 		try{
-			return parse(in, containerFactory);
+			instance = BeanBinder.get(type).newInstance();
+		}
+		catch(RuntimeException e){
+			throw e;
+		}
+		catch(Error e){
+			throw e;
+		}
+		catch(Throwable t){
+			throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_EXCEPTION, t);
+		}
+		if(instance == null)
+			throw new IllegalArgumentException("No constructor without parameters: " + type.getName());
+		return instance;
+	}
+	
+	private static Type typeArgument(Type type, int index){
+		if(type instanceof ParameterizedType){
+			Type[] arguments = ((ParameterizedType)type).getActualTypeArguments();
+			if(index < arguments.length)
+				return arguments[index];
+		}
+		return Object.class;
+	}
+	
+	private static Class rawType(Type type){
+		if(type instanceof Class)
+			return (Class)type;
+		if(type instanceof ParameterizedType)
+			return rawType(((ParameterizedType)type).getRawType());
+		if(type instanceof GenericArrayType)
+			return Array.newInstance(rawType(((GenericArrayType)type).getGenericComponentType()), 0).getClass();
+		if(type instanceof WildcardType)
+			return rawType(((WildcardType)type).getUpperBounds()[0]);
+		if(type instanceof TypeVariable)
+			return rawType(((TypeVariable)type).getBounds()[0]);
+		return Object.class;
+	}
+	
+	/**
+	 * Accepts everything, used to run the state machine over the text for validation only.
+	 */
+	private static final ContentHandler VALIDATOR = new ContentHandler(){
+		public void startJSON(){
+		}
+		
+		public void endJSON(){
+		}
+		
+		public boolean startObject(){
+			return true;
+		}
+		
+		public boolean endObject(){
+			return true;
+		}
+		
+		public boolean startObjectEntry(String key){
+			return true;
+		}
+		
+		public boolean endObjectEntry(){
+			return true;
+		}
+		
+		public boolean startArray(){
+			return true;
+		}
+		
+		public boolean endArray(){
+			return true;
+		}
+		
+		public boolean primitive(Object value){
+			return true;
+		}
+	};
+	
+	private Object parseInMemory(ContainerFactory containerFactory) throws ParseException{
+		try{
+			return parse(containerFactory);
 		}
 		catch(IOException ie){
 			/*
@@ -88,31 +1583,33 @@ public class JSONParser {
 		}
 	}
 	
-	public Object parse(Reader in) throws IOException, ParseException{
-		return parse(in, (ContainerFactory)null);
+	private Object parse(ContainerFactory containerFactory) throws IOException, ParseException{
+		return parse(containerFactory, (Projection)null);
+	}
+	
+	private Object parse(ContainerFactory containerFactory, Projection projection) throws IOException, ParseException{
+		this.projection = projection;
+		startMeter();
+		try{
+			Object value = parse(containerFactory, false);
+			stopMeter(containerFactory == null ? null : containerFactory.getClass());
+			return value;
+		}
+		catch(ParseException pe){
+			failMeter(pe);
+			throw pe;
+		}
+		finally{
+			this.projection = null;
+			lexer.skipValues = false;
+		}
 	}
 	
 	/**
-	 * Parse JSON text into java object from the input source.
-	 * 	
-	 * @param in
-     * @param containerFactory - Use this factory to createyour own JSON object and JSON array containers.
-	 * @return Instance of the following:
-	 *  org.json.simple.JSONObject,
-	 * 	org.json.simple.JSONArray,
-	 * 	java.lang.String,
-	 * 	java.lang.Number,
-	 * 	java.lang.Boolean,
-	 * 	null
-	 * 
-	 * @throws IOException
-	 * @throws ParseException
+	 * @param singleValue - If true, return as soon as one complete value has been read, without
+	 * 	consuming the token that follows it.
 	 */
-	public Object parse(Reader in, ContainerFactory containerFactory) throws IOException, ParseException{
-		reset(in);
-		LinkedList statusStack = new LinkedList();
-		LinkedList valueStack = new LinkedList();
-		
+	private Object parse(ContainerFactory containerFactory, boolean singleValue) throws IOException, ParseException{
 		try{
 			do{
 				nextToken();
@@ -121,18 +1618,18 @@ public class JSONParser {
 					switch(token.type){
 					case Yytoken.TYPE_VALUE:
 						status=S_IN_FINISHED_VALUE;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(token.value);
+						pushStatus(status);
+						pushValue(token.value);
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(createObjectContainer(containerFactory));
+						pushContainer(status);
+						pushValue(createObjectContainer(containerFactory));
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(createArrayContainer(containerFactory));
+						pushContainer(status);
+						pushValue(createArrayContainer(containerFactory));
 						break;
 					default:
 						status=S_IN_ERROR;
@@ -141,9 +1638,9 @@ public class JSONParser {
 					
 				case S_IN_FINISHED_VALUE:
 					if(token.type==Yytoken.TYPE_EOF)
-						return valueStack.removeFirst();
+						return popValue();
 					else
-						throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+						throw unexpectedToken();
 					
 				case S_IN_OBJECT:
 					switch(token.type){
@@ -152,19 +1649,26 @@ public class JSONParser {
 					case Yytoken.TYPE_VALUE:
 						if(token.value instanceof String){
 							String key=(String)token.value;
-							valueStack.addFirst(key);
+							if(projection!=null && !includes(key)){
+								skipMember();
+								break;
+							}
+							pushValue(key);
 							status=S_PASSED_PAIR_KEY;
-							statusStack.addFirst(new Integer(status));
+							pushStatus(status);
 						}
 						else{
 							status=S_IN_ERROR;
 						}
 						break;
 					case Yytoken.TYPE_RIGHT_BRACE:
-						if(valueStack.size()>1){
-							statusStack.removeFirst();
-							valueStack.removeFirst();
-							status=peekStatus(statusStack);
+						depth--;
+						if(valueDepth>1){
+							popStatus();
+							popValue();
+							status=peekStatus();
+							if(projection!=null && status==S_IN_OBJECT)
+								pathDepth--;
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
@@ -181,31 +1685,38 @@ public class JSONParser {
 					case Yytoken.TYPE_COLON:
 						break;
 					case Yytoken.TYPE_VALUE:
-						statusStack.removeFirst();
-						String key=(String)valueStack.removeFirst();
-						Map parent=(Map)valueStack.getFirst();
+						popStatus();
+						String key=(String)popValue();
+						Map parent=(Map)peekValue();
 						parent.put(key,token.value);
-						status=peekStatus(statusStack);
+						checkMembers(parent);
+						status=peekStatus();
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
-						statusStack.removeFirst();
-						key=(String)valueStack.removeFirst();
-						parent=(Map)valueStack.getFirst();
+						popStatus();
+						key=(String)popValue();
+						parent=(Map)peekValue();
 						List newArray=createArrayContainer(containerFactory);
 						parent.put(key,newArray);
+						checkMembers(parent);
+						if(projection!=null)
+							pathDepth++;
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newArray);
+						pushContainer(status);
+						pushValue(newArray);
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
-						statusStack.removeFirst();
-						key=(String)valueStack.removeFirst();
-						parent=(Map)valueStack.getFirst();
+						popStatus();
+						key=(String)popValue();
+						parent=(Map)peekValue();
 						Map newObject=createObjectContainer(containerFactory);
 						parent.put(key,newObject);
+						checkMembers(parent);
+						if(projection!=null)
+							pathDepth++;
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newObject);
+						pushContainer(status);
+						pushValue(newObject);
 						break;
 					default:
 						status=S_IN_ERROR;
@@ -217,44 +1728,53 @@ public class JSONParser {
 					case Yytoken.TYPE_COMMA:
 						break;
 					case Yytoken.TYPE_VALUE:
-						List val=(List)valueStack.getFirst();
+						List val=(List)peekValue();
 						val.add(token.value);
+						checkLength(val);
 						break;
 					case Yytoken.TYPE_RIGHT_SQUARE:
-						if(valueStack.size()>1){
-							statusStack.removeFirst();
-							valueStack.removeFirst();
-							status=peekStatus(statusStack);
+						depth--;
+						if(valueDepth>1){
+							popStatus();
+							popValue();
+							status=peekStatus();
+							if(projection!=null && status==S_IN_OBJECT)
+								pathDepth--;
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
 						}
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
-						val=(List)valueStack.getFirst();
+						val=(List)peekValue();
 						Map newObject=createObjectContainer(containerFactory);
 						val.add(newObject);
+						checkLength(val);
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newObject);
+						pushContainer(status);
+						pushValue(newObject);
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
-						val=(List)valueStack.getFirst();
+						val=(List)peekValue();
 						List newArray=createArrayContainer(containerFactory);
 						val.add(newArray);
+						checkLength(val);
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
-						valueStack.addFirst(newArray);
+						pushContainer(status);
+						pushValue(newArray);
 						break;
 					default:
 						status=S_IN_ERROR;
 					}//inner switch
 					break;
 				case S_IN_ERROR:
-					throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+					throw unexpectedToken();
 				}//switch
 				if(status==S_IN_ERROR){
-					throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+					throw unexpectedToken();
+				}
+				if(singleValue && status==S_IN_FINISHED_VALUE){
+					return popValue();
 				}
 			}while(token.type!=Yytoken.TYPE_EOF);
 		}
@@ -262,13 +1782,54 @@ public class JSONParser {
 			throw ie;
 		}
 		
-		throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+		throw unexpectedToken();
+	}
+	
+	/**
+	 * @return Whether the projection includes the member with the given key in the current object.
+	 */
+	private boolean includes(String key){
+		if(pathDepth==path.length){
+			String[] newPath=new String[path.length*2];
+			System.arraycopy(path, 0, newPath, 0, pathDepth);
+			path=newPath;
+		}
+		path[pathDepth]=key;
+		return projection.includes(path, pathDepth+1);
+	}
+	
+	/**
+	 * Skips the rest of an object member whose key is the current token, without decoding its value.
+	 */
+	private void skipMember() throws IOException, ParseException{
+		lexer.skipValues = true;
+		try{
+			do{
+				nextToken();
+			}while(token.type == Yytoken.TYPE_COLON);
+			skipValue();
+		}
+		finally{
+			lexer.skipValues = false;
+		}
 	}
 	
 	private void nextToken() throws ParseException, IOException{
+		lexer.keyCache = status == S_IN_OBJECT ? keyCache : null;
+		if(tokenPushedBack){
+			tokenPushedBack = false;
+			token = lexer.token;
+			return;
+		}
 		token = lexer.yylex();
-		if(token == null)
-			token = new Yytoken(Yytoken.TYPE_EOF, null);
+	}
+	
+	/**
+	 * The lexer reuses its token, so the exception gets a snapshot of it.
+	 */
+	private ParseException unexpectedToken(){
+		Yytoken snapshot = token == null ? null : new Yytoken(token.type, token.value);
+		return new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, snapshot);
 	}
 	
 	private Map createObjectContainer(ContainerFactory containerFactory){
@@ -327,42 +1888,140 @@ public class JSONParser {
 	 * @throws ParseException
 	 */
 	public void parse(Reader in, ContentHandler contentHandler, boolean isResume) throws IOException, ParseException{
-		if(!isResume){
+		if(!isResume || !handlerStarted){
 			reset(in);
-			handlerStatusStack = new LinkedList();
+			handlerStarted = true;
 		}
-		else{
-			if(handlerStatusStack == null){
-				isResume = false;
-				reset(in);
-				handlerStatusStack = new LinkedList();
-			}
+		parse(contentHandler);
+	}
+	
+	public void parse(InputStream in, ContentHandler contentHandler) throws IOException, ParseException{
+		parse(in, contentHandler, false);
+	}
+	
+	/**
+	 * Stream processing of UTF-8 encoded JSON text.
+	 * 
+	 * @see #parse(Reader, ContentHandler, boolean)
+	 * 
+	 * @param in
+	 * @param contentHandler
+	 * @param isResume - Indicates if it continues previous parsing operation.
+	 *                   If set to true, resume parsing the old input, and parameter 'in' will be ignored.
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public void parse(InputStream in, ContentHandler contentHandler, boolean isResume) throws IOException, ParseException{
+		if(!isResume || !handlerStarted){
+			reset(in);
+			handlerStarted = true;
 		}
-		
-		LinkedList statusStack = handlerStatusStack;	
-		
+		parse(contentHandler);
+	}
+	
+	public void parse(byte[] b, int off, int len, ContentHandler contentHandler) throws ParseException{
+		parse(b, off, len, contentHandler, false);
+	}
+	
+	/**
+	 * Stream processing of UTF-8 encoded JSON text from the bytes b[off] to b[off+len-1].
+	 * 
+	 * @see #parse(Reader, ContentHandler, boolean)
+	 */
+	public void parse(byte[] b, int off, int len, ContentHandler contentHandler, boolean isResume) throws ParseException{
+		if(!isResume || !handlerStarted){
+			reset(b, off, len);
+			handlerStarted = true;
+		}
+		parseInMemory(contentHandler);
+	}
+	
+	public void parse(ByteBuffer buffer, ContentHandler contentHandler) throws ParseException{
+		parse(buffer, contentHandler, false);
+	}
+	
+	/**
+	 * Stream processing of UTF-8 encoded JSON text from the remaining bytes of the buffer.
+	 * 
+	 * @see #parse(Reader, ContentHandler, boolean)
+	 */
+	public void parse(ByteBuffer buffer, ContentHandler contentHandler, boolean isResume) throws ParseException{
+		if(!isResume || !handlerStarted){
+			reset(buffer);
+			handlerStarted = true;
+		}
+		parseInMemory(contentHandler);
+	}
+	
+	/**
+	 * Stream processing of a UTF-8 encoded JSON file, suitable for files larger than 2 GB.
+	 * The file is mapped into memory window by window and lexed in place, and getPosition()
+	 * reports byte offsets into the file.
+	 * <p>
+	 * The file is closed when this method returns, so a parse stopped by the handler cannot be resumed.
+	 * 
+	 * @see #parse(Reader, ContentHandler, boolean)
+	 * 
+	 * @param file
+	 * @param contentHandler
+	 * 
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public void parse(Path file, ContentHandler contentHandler) throws IOException, ParseException{
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try{
+			byteLexer().yyreset(channel);
+			lexer = byteLexer;
+			reset();
+			parse(contentHandler);
+		}
+		finally{
+			handlerStarted = false;
+			channel.close();
+		}
+	}
+	
+	private void parseInMemory(ContentHandler contentHandler) throws ParseException{
+		try{
+			parse(contentHandler);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
+	private void parse(ContentHandler contentHandler) throws IOException, ParseException{
 		try{
 			do{
 				switch(status){
 				case S_INIT:
+					startMeter();
 					contentHandler.startJSON();
+					status=S_STARTED;
+					// fall through
+				case S_STARTED:
 					nextToken();
 					switch(token.type){
 					case Yytoken.TYPE_VALUE:
 						status=S_IN_FINISHED_VALUE;
-						statusStack.addFirst(new Integer(status));
+						pushStatus(status);
 						if(!contentHandler.primitive(token.value))
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
+						pushContainer(status);
 						if(!contentHandler.startObject())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
+						pushContainer(status);
 						if(!contentHandler.startArray())
 							return;
 						break;
@@ -374,13 +2033,14 @@ public class JSONParser {
 				case S_IN_FINISHED_VALUE:
 					nextToken();
 					if(token.type==Yytoken.TYPE_EOF){
+						stopMeter(contentHandler.getClass());
 						contentHandler.endJSON();
 						status = S_END;
 						return;
 					}
 					else{
 						status = S_IN_ERROR;
-						throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+						throw unexpectedToken();
 					}
 			
 				case S_IN_OBJECT:
@@ -392,7 +2052,7 @@ public class JSONParser {
 						if(token.value instanceof String){
 							String key=(String)token.value;
 							status=S_PASSED_PAIR_KEY;
-							statusStack.addFirst(new Integer(status));
+							pushStatus(status);
 							if(!contentHandler.startObjectEntry(key))
 								return;
 						}
@@ -401,9 +2061,10 @@ public class JSONParser {
 						}
 						break;
 					case Yytoken.TYPE_RIGHT_BRACE:
-						if(statusStack.size()>1){
-							statusStack.removeFirst();
-							status=peekStatus(statusStack);
+						depth--;
+						if(statusDepth>1){
+							popStatus();
+							status=peekStatus();
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
@@ -423,26 +2084,26 @@ public class JSONParser {
 					case Yytoken.TYPE_COLON:
 						break;
 					case Yytoken.TYPE_VALUE:
-						statusStack.removeFirst();
-						status=peekStatus(statusStack);
+						popStatus();
+						status=peekStatus();
 						if(!contentHandler.primitive(token.value))
 							return;
 						if(!contentHandler.endObjectEntry())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
-						statusStack.removeFirst();
-						statusStack.addFirst(new Integer(S_IN_PAIR_VALUE));
+						popStatus();
+						pushStatus(S_IN_PAIR_VALUE);
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
+						pushContainer(status);
 						if(!contentHandler.startArray())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
-						statusStack.removeFirst();
-						statusStack.addFirst(new Integer(S_IN_PAIR_VALUE));
+						popStatus();
+						pushStatus(S_IN_PAIR_VALUE);
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
+						pushContainer(status);
 						if(!contentHandler.startObject())
 							return;
 						break;
@@ -456,8 +2117,8 @@ public class JSONParser {
 					 * S_IN_PAIR_VALUE is just a marker to indicate the end of an object entry, it doesn't proccess any token,
 					 * therefore delay consuming token until next round.
 					 */
-					statusStack.removeFirst();
-					status = peekStatus(statusStack);
+					popStatus();
+					status = peekStatus();
 					if(!contentHandler.endObjectEntry())
 						return;
 					break;
@@ -472,9 +2133,10 @@ public class JSONParser {
 							return;
 						break;
 					case Yytoken.TYPE_RIGHT_SQUARE:
-						if(statusStack.size()>1){
-							statusStack.removeFirst();
-							status=peekStatus(statusStack);
+						depth--;
+						if(statusDepth>1){
+							popStatus();
+							status=peekStatus();
 						}
 						else{
 							status=S_IN_FINISHED_VALUE;
@@ -484,13 +2146,13 @@ public class JSONParser {
 						break;
 					case Yytoken.TYPE_LEFT_BRACE:
 						status=S_IN_OBJECT;
-						statusStack.addFirst(new Integer(status));
+						pushContainer(status);
 						if(!contentHandler.startObject())
 							return;
 						break;
 					case Yytoken.TYPE_LEFT_SQUARE:
 						status=S_IN_ARRAY;
-						statusStack.addFirst(new Integer(status));
+						pushContainer(status);
 						if(!contentHandler.startArray())
 							return;
 						break;
@@ -503,10 +2165,10 @@ public class JSONParser {
 					return;
 					
 				case S_IN_ERROR:
-					throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+					throw unexpectedToken();
 				}//switch
 				if(status==S_IN_ERROR){
-					throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+					throw unexpectedToken();
 				}
 			}while(token.type!=Yytoken.TYPE_EOF);
 		}
@@ -516,8 +2178,12 @@ public class JSONParser {
 		}
 		catch(ParseException pe){
 			status = S_IN_ERROR;
+			failMeter(pe);
 			throw pe;
 		}
+		catch(Utf8Lexer.NeedMoreInput nmi){
+			throw nmi;
+		}
 		catch(RuntimeException re){
 			status = S_IN_ERROR;
 			throw re;
@@ -528,6 +2194,55 @@ public class JSONParser {
 		}
 		
 		status = S_IN_ERROR;
-		throw new ParseException(getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, token);
+		throw unexpectedToken();
+	}
+	
+	/**
+	 * Reset the parser to the initial state for UTF-8 encoded input passed to feed().
+	 * 
+	 * @see org.json.simple.parser.JSONFeedParser
+	 */
+	void resetFeed(){
+		byteLexer().yyresetFeed();
+		lexer = byteLexer;
+		reset();
+		handlerStarted = true;
+	}
+	
+	void feed(ByteBuffer input){
+		byteLexer.feed(input);
+	}
+	
+	void endOfInput(){
+		byteLexer.endOfInput();
+	}
+	
+	/**
+	 * Stream processing of the input fed so far.
+	 * 
+	 * @return false if the input fed so far ends inside a token, true if the handler has stopped
+	 * 	the parsing or the end of the JSON text has been reached (see isEnded()).
+	 */
+	boolean parseFed(ContentHandler contentHandler) throws ParseException{
+		try{
+			parse(contentHandler);
+			return true;
+		}
+		catch(Utf8Lexer.NeedMoreInput nmi){
+			return false;
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+	
+	/**
+	 * @return true once the end of the JSON text has been reached by a ContentHandler parse.
+	 */
+	boolean isEnded(){
+		return status == S_END;
 	}
 }
@@ -0,0 +1,90 @@
+package org.json.simple.parser;
+
+/**
+ * Creates configured JSONParsers, and keeps one idle parser per thread for reuse, so that the
+ * buffers of a parser are allocated once per thread instead of once per parse.
+ * <p>
+ * acquire() hands out the idle parser of the calling thread, or a new one if the thread has none
+ * (for example while its parser is already in use further up the call stack). release() makes
+ * the parser the idle parser of the calling thread again. A released parser keeps its buffers
+ * unless they have grown beyond getMaxRetainedBufferSize(), so a single huge input does not pin
+ * a huge buffer to the thread.
+ * <p>
+ * A JSONParserFactory may be used by several threads. The JSONValue.parse* methods use
+ * getDefault().
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONParserFactory {
+	public static final int DEFAULT_BUFFER_SIZE = 4096;
+	public static final int DEFAULT_MAX_RETAINED_BUFFER_SIZE = 65536;
+
+	private static final JSONParserFactory DEFAULT = new JSONParserFactory();
+
+	private final int bufferSize;
+	private final int maxRetainedBufferSize;
+	private final ThreadLocal idle = new ThreadLocal();
+
+	public JSONParserFactory(){
+		this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_RETAINED_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param bufferSize - The initial size of the parsers' buffers for Reader or InputStream input.
+	 * @param maxRetainedBufferSize - Buffers that have grown beyond this size are dropped when a parser is released.
+	 */
+	public JSONParserFactory(int bufferSize, int maxRetainedBufferSize){
+		if(bufferSize <= 0)
+			throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+		if(maxRetainedBufferSize < bufferSize)
+			throw new IllegalArgumentException("Invalid maximum retained buffer size: " + maxRetainedBufferSize);
+		this.bufferSize = bufferSize;
+		this.maxRetainedBufferSize = maxRetainedBufferSize;
+	}
+
+	/**
+	 * @return The factory used by the JSONValue.parse* methods.
+	 */
+	public static JSONParserFactory getDefault(){
+		return DEFAULT;
+	}
+
+	public int getBufferSize(){
+		return bufferSize;
+	}
+
+	public int getMaxRetainedBufferSize(){
+		return maxRetainedBufferSize;
+	}
+
+	/**
+	 * @return A new parser, not taken from the pool.
+	 */
+	public JSONParser newParser(){
+		return new JSONParser(bufferSize);
+	}
+
+	/**
+	 * @return The idle parser of the calling thread, or a new parser. It must be used by the calling thread only,
+	 * 	and given back with release() once it is not used any more.
+	 */
+	public JSONParser acquire(){
+		JSONParser parser = (JSONParser)idle.get();
+		if(parser == null)
+			return newParser();
+		idle.set(null);
+		return parser;
+	}
+
+	/**
+	 * Makes the parser available to acquire() on the calling thread. The parser must not be used after it
+	 * has been released. Its numeric mode is set back to the default, and its key cache is kept.
+	 *
+	 * @param parser - A parser returned by acquire().
+	 */
+	public void release(JSONParser parser){
+		parser.recycle(maxRetainedBufferSize);
+		if(idle.get() == null)
+			idle.set(parser);
+	}
+}
@@ -0,0 +1,301 @@
+package org.json.simple.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Pull parser for JSON text: the caller asks for one token at a time with nextToken(),
+ * instead of receiving ContentHandler callbacks.
+ * <p>
+ * Numbers are not boxed: longValue() and doubleValue() convert the digits of the current token
+ * directly. skipChildren() skips a whole object or array by counting brackets, without building
+ * or validating anything inside it. The grammar is otherwise the same as the one of JSONParser.
+ * <p>
+ * A typical loop:
+ * <pre>
+ * JSONReader reader = new JSONReader(in);
+ * reader.nextToken(); // START_OBJECT
+ * while(reader.nextToken() == JSONReader.NAME){
+ *     String name = reader.currentName();
+ *     if(reader.nextToken() == JSONReader.INTEGER &amp;&amp; name.equals("id"))
+ *         id = reader.longValue();
+ *     else
+ *         reader.skipChildren();
+ * }
+ * </pre>
+ * Please note that JSONReader is NOT thread-safe.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONReader implements Closeable {
+	public static final int END_OF_INPUT=0;
+	public static final int START_OBJECT=1;
+	public static final int END_OBJECT=2;
+	public static final int START_ARRAY=3;
+	public static final int END_ARRAY=4;
+	/** the name of an object member, the value follows */
+	public static final int NAME=5;
+	public static final int STRING=6;
+	/** a number with neither a fraction nor an exponent */
+	public static final int INTEGER=7;
+	/** a number with a fraction or an exponent */
+	public static final int DECIMAL=8;
+	public static final int TRUE=9;
+	public static final int FALSE=10;
+	public static final int NULL=11;
+
+	private static final int IN_OBJECT=0;
+	private static final int IN_ARRAY=1;
+
+	private final Lexer lexer;
+	private final Closeable in;
+	private final KeyCache keyCache = new KeyCache();
+
+	/** the enclosing containers, and the name of the current member of each object */
+	private int[] containers = new int[32];
+	private String[] names = new String[32];
+	private int depth = 0;
+	/** set between the name of a member and its value */
+	private boolean afterName = false;
+	/** set once the root value has been read */
+	private boolean done = false;
+
+	private int current = -1;
+	private String currentName = null;
+	private Object value = null;
+
+	/**
+	 * @param in - Character input, closed by close().
+	 */
+	public JSONReader(Reader in){
+		this.lexer = new Yylex(in);
+		this.in = in;
+		lexer.primitiveNumbers = true;
+	}
+
+	/**
+	 * @param in - UTF-8 encoded input, closed by close().
+	 */
+	public JSONReader(InputStream in){
+		Utf8Lexer utf8Lexer = new Utf8Lexer();
+		utf8Lexer.yyreset(in);
+		this.lexer = utf8Lexer;
+		this.in = in;
+		lexer.primitiveNumbers = true;
+	}
+
+	/**
+	 * @param s - JSON text.
+	 */
+	public JSONReader(String s){
+		this.lexer = new Yylex(s);
+		this.in = null;
+		lexer.primitiveNumbers = true;
+	}
+
+	/**
+	 * Reads the next token.
+	 *
+	 * @return One of the token constants; END_OF_INPUT once the root value has been read entirely.
+	 * @throws IOException
+	 * @throws ParseException if the text is not valid JSON, or if anything but white space follows the root value.
+	 */
+	public int nextToken() throws IOException, ParseException{
+		for(;;){
+			lexer.keyCache = depth > 0 && containers[depth - 1] == IN_OBJECT && !afterName ? keyCache : null;
+			Yytoken token = lexer.yylex();
+			if(depth == 0){
+				if(done){
+					if(token.type == Yytoken.TYPE_EOF)
+						return current(END_OF_INPUT, null);
+					throw unexpectedToken(token);
+				}
+				return value(token);
+			}
+			if(containers[depth - 1] == IN_ARRAY){
+				switch(token.type){
+				case Yytoken.TYPE_COMMA:
+					continue;
+				case Yytoken.TYPE_RIGHT_SQUARE:
+					depth--;
+					return end(END_ARRAY);
+				default:
+					return value(token);
+				}
+			}
+			if(afterName){
+				if(token.type == Yytoken.TYPE_COLON)
+					continue;
+				afterName = false;
+				return value(token);
+			}
+			switch(token.type){
+			case Yytoken.TYPE_COMMA:
+				continue;
+			case Yytoken.TYPE_RIGHT_BRACE:
+				depth--;
+				return end(END_OBJECT);
+			case Yytoken.TYPE_VALUE:
+				if(token.value instanceof String){
+					String name = (String)token.value;
+					names[depth - 1] = name;
+					afterName = true;
+					return current(NAME, name);
+				}
+				// fall through
+			default:
+				throw unexpectedToken(token);
+			}
+		}
+	}
+
+	private int value(Yytoken token) throws ParseException{
+		switch(token.type){
+		case Yytoken.TYPE_VALUE:
+			Object v = token.value;
+			if(depth == 0)
+				done = true;
+			if(v == Lexer.PRIMITIVE_NUMBER)
+				return current(lexer.isIntegralNumber() ? INTEGER : DECIMAL, null);
+			if(v instanceof String)
+				return current(STRING, v);
+			if(v == null)
+				return current(NULL, null);
+			return current(((Boolean)v).booleanValue() ? TRUE : FALSE, null);
+		case Yytoken.TYPE_LEFT_BRACE:
+			current(START_OBJECT, null);
+			push(IN_OBJECT);
+			return START_OBJECT;
+		case Yytoken.TYPE_LEFT_SQUARE:
+			current(START_ARRAY, null);
+			push(IN_ARRAY);
+			return START_ARRAY;
+		default:
+			throw unexpectedToken(token);
+		}
+	}
+
+	private int end(int type){
+		if(depth == 0)
+			done = true;
+		return current(type, null);
+	}
+
+	private int current(int type, Object v){
+		current = type;
+		value = v;
+		currentName = depth > 0 && containers[depth - 1] == IN_OBJECT ? names[depth - 1] : null;
+		return type;
+	}
+
+	private void push(int container){
+		if(depth == containers.length){
+			int[] newContainers = new int[depth * 2];
+			String[] newNames = new String[depth * 2];
+			System.arraycopy(containers, 0, newContainers, 0, depth);
+			System.arraycopy(names, 0, newNames, 0, depth);
+			containers = newContainers;
+			names = newNames;
+		}
+		containers[depth] = container;
+		names[depth] = null;
+		depth++;
+	}
+
+	private ParseException unexpectedToken(Yytoken token){
+		Object v = token.value;
+		if(v == Lexer.PRIMITIVE_NUMBER)
+			v = lexer.isIntegralNumber() ? (Object)Long.valueOf(lexer.longValue()) : Double.valueOf(lexer.doubleValue());
+		return new ParseException(lexer.getPosition(), ParseException.ERROR_UNEXPECTED_TOKEN, new Yytoken(token.type, v));
+	}
+
+	/**
+	 * @return The current token, the last one returned by nextToken(), or -1 before the first call.
+	 */
+	public int currentToken(){
+		return current;
+	}
+
+	/**
+	 * @return The name of the object member the current token belongs to: the name itself for NAME,
+	 * 	the member name for its value (including START_OBJECT/START_ARRAY and END_OBJECT/END_ARRAY of
+	 * 	a container value), or null outside of an object member.
+	 */
+	public String currentName(){
+		return currentName;
+	}
+
+	/**
+	 * @return The value of the current STRING token, or the name of the current NAME token.
+	 * @throws IllegalStateException if the current token is neither.
+	 */
+	public String stringValue(){
+		if(current != STRING && current != NAME)
+			throw new IllegalStateException("Current token is not a string: " + current);
+		return (String)value;
+	}
+
+	/**
+	 * @return The value of the current INTEGER or DECIMAL token, truncated or wrapped like a narrowing conversion.
+	 * @throws IllegalStateException if the current token is not a number.
+	 */
+	public long longValue(){
+		checkNumber();
+		return lexer.longValue();
+	}
+
+	/**
+	 * @return The value of the current INTEGER or DECIMAL token.
+	 * @throws IllegalStateException if the current token is not a number.
+	 */
+	public double doubleValue(){
+		checkNumber();
+		return lexer.doubleValue();
+	}
+
+	/**
+	 * @return The value of the current TRUE or FALSE token.
+	 * @throws IllegalStateException if the current token is not a boolean.
+	 */
+	public boolean booleanValue(){
+		if(current != TRUE && current != FALSE)
+			throw new IllegalStateException("Current token is not a boolean: " + current);
+		return current == TRUE;
+	}
+
+	private void checkNumber(){
+		if(current != INTEGER && current != DECIMAL)
+			throw new IllegalStateException("Current token is not a number: " + current);
+	}
+
+	/**
+	 * If the current token is START_OBJECT or START_ARRAY, skips to the matching END_OBJECT or END_ARRAY,
+	 * which becomes the current token. Nothing in between is decoded or validated. Does nothing for other tokens.
+	 *
+	 * @throws IOException
+	 * @throws ParseException if the input ends before the end of the container.
+	 */
+	public void skipChildren() throws IOException, ParseException{
+		if(current != START_OBJECT && current != START_ARRAY)
+			return;
+		if(!lexer.skipContainer())
+			throw unexpectedToken(lexer.yylex());
+		depth--;
+		end(current == START_OBJECT ? END_OBJECT : END_ARRAY);
+	}
+
+	/**
+	 * @return The position of the beginning of the current token,
+	 * 	in characters for text input and in bytes for UTF-8 input.
+	 */
+	public long getPosition(){
+		return lexer.getPosition();
+	}
+
+	public void close() throws IOException{
+		if(in != null)
+			in.close();
+	}
+}
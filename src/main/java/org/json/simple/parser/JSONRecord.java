@@ -0,0 +1,203 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.json.simple.JSONAware;
+import org.json.simple.JSONStreamAware;
+import org.json.simple.JSONValue;
+
+/**
+ * The members of a JSON object parsed with a JSONSchema, in typed slots indexed by
+ * JSONSchema.indexOf(). Numbers and booleans are stored without boxing. A member that
+ * is missing, or null in the text, is not set.
+ * <p>
+ * A record may be filled again and again by JSONSchemaParser.parse(Reader, JSONRecord); its nested
+ * records are reused as well, so parsing into it allocates nothing but strings and VALUE members.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONRecord implements JSONAware, JSONStreamAware {
+	private final JSONSchema schema;
+	private final boolean[] present;
+	/** LONG members, and BOOLEAN members as 0 or 1 */
+	private final long[] longs;
+	private final double[] doubles;
+	/** STRING and VALUE members, and the records of OBJECT members, which are kept when cleared */
+	private final Object[] objects;
+
+	JSONRecord(JSONSchema schema){
+		this.schema = schema;
+		int size = schema.size();
+		present = new boolean[size];
+		longs = new long[size];
+		doubles = new double[size];
+		objects = new Object[size];
+	}
+
+	public JSONSchema getSchema(){
+		return schema;
+	}
+
+	/**
+	 * Unsets all members.
+	 */
+	public void clear(){
+		for(int i = 0; i < present.length; i++){
+			present[i] = false;
+			if(schema.getType(i) != JSONSchema.OBJECT)
+				objects[i] = null;
+		}
+	}
+
+	/**
+	 * @return Whether the member is set.
+	 */
+	public boolean has(int index){
+		return present[index];
+	}
+
+	/**
+	 * @return The value of a STRING member, or null if it is not set.
+	 */
+	public String getString(int index){
+		check(index, JSONSchema.STRING);
+		return present[index] ? (String)objects[index] : null;
+	}
+
+	/**
+	 * @return The value of a LONG member, or 0 if it is not set.
+	 */
+	public long getLong(int index){
+		check(index, JSONSchema.LONG);
+		return present[index] ? longs[index] : 0;
+	}
+
+	/**
+	 * @return The value of a DOUBLE member, or 0 if it is not set.
+	 */
+	public double getDouble(int index){
+		check(index, JSONSchema.DOUBLE);
+		return present[index] ? doubles[index] : 0;
+	}
+
+	/**
+	 * @return The value of a BOOLEAN member, or false if it is not set.
+	 */
+	public boolean getBoolean(int index){
+		check(index, JSONSchema.BOOLEAN);
+		return present[index] && longs[index] != 0;
+	}
+
+	/**
+	 * @return The record of an OBJECT member, or null if it is not set.
+	 */
+	public JSONRecord getRecord(int index){
+		check(index, JSONSchema.OBJECT);
+		return present[index] ? (JSONRecord)objects[index] : null;
+	}
+
+	/**
+	 * @return The value of any member, boxed; or null if it is not set.
+	 */
+	public Object get(int index){
+		if(!present[index])
+			return null;
+		switch(schema.getType(index)){
+		case JSONSchema.LONG:
+			return Long.valueOf(longs[index]);
+		case JSONSchema.DOUBLE:
+			return Double.valueOf(doubles[index]);
+		case JSONSchema.BOOLEAN:
+			return Boolean.valueOf(longs[index] != 0);
+		default:
+			return objects[index];
+		}
+	}
+
+	/**
+	 * @return The value of any member, see get(int).
+	 * @throws IllegalArgumentException if the schema has no such member.
+	 */
+	public Object get(String name){
+		int index = schema.indexOf(name);
+		if(index < 0)
+			throw new IllegalArgumentException("No such member: " + name);
+		return get(index);
+	}
+
+	private void check(int index, int type){
+		if(schema.getType(index) != type)
+			throw new IllegalArgumentException("Member " + schema.getName(index) + " is of type " + schema.getType(index));
+	}
+
+	void setLong(int index, long value){
+		longs[index] = value;
+		present[index] = true;
+	}
+
+	void setDouble(int index, double value){
+		doubles[index] = value;
+		present[index] = true;
+	}
+
+	void setObject(int index, Object value){
+		objects[index] = value;
+		present[index] = true;
+	}
+
+	/**
+	 * @return The cleared record of an OBJECT member, which is set.
+	 */
+	JSONRecord record(int index){
+		JSONRecord record = (JSONRecord)objects[index];
+		if(record == null){
+			record = schema.getSchema(index).newRecord();
+			objects[index] = record;
+		}
+		else{
+			record.clear();
+		}
+		present[index] = true;
+		return record;
+	}
+
+	/**
+	 * Writes the members that are set as a JSON object.
+	 */
+	public void writeJSONString(Writer out) throws IOException{
+		boolean first = true;
+		out.write('{');
+		for(int i = 0; i < present.length; i++){
+			if(!present[i])
+				continue;
+			if(first)
+				first = false;
+			else
+				out.write(',');
+			out.write('\"');
+			JSONValue.escape(schema.getName(i), out);
+			out.write('\"');
+			out.write(':');
+			JSONValue.writeJSONString(get(i), out);
+		}
+		out.write('}');
+	}
+
+	public String toJSONString(){
+		StringWriter writer = new StringWriter();
+		try{
+			writeJSONString(writer);
+			return writer.toString();
+		}
+		catch(IOException e){
+			// This should never happen with a StringWriter
+			throw new RuntimeException(e);
+		}
+	}
+
+	public String toString(){
+		return toJSONString();
+	}
+}
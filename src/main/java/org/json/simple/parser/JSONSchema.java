@@ -0,0 +1,229 @@
+package org.json.simple.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The fixed shape of a JSON object: the names and types of its members. This is a plain description
+ * of a message layout for JSONSchemaParser, not a JSON Schema (draft) document.
+ * <p>
+ * Once a parser has been created for it, the schema is compiled into a perfect hash table of its
+ * member names, and cannot be changed any more. The parser then matches keys against that table
+ * directly on its character buffer, without creating key strings.
+ * <p>
+ * A typical schema:
+ * <pre>
+ * JSONSchema customer = new JSONSchema()
+ *     .add("name", JSONSchema.STRING);
+ * JSONSchema order = new JSONSchema()
+ *     .add("id", JSONSchema.LONG)
+ *     .add("price", JSONSchema.DOUBLE)
+ *     .add("customer", customer)
+ *     .add("tags", JSONSchema.VALUE);
+ * </pre>
+ * A compiled JSONSchema may be used by several threads.
+ *
+ * @see org.json.simple.parser.JSONSchemaParser
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONSchema {
+	public static final int STRING=0;
+	/** an integral number, stored as a long; a fraction or a value beyond a long is a ParseException */
+	public static final int LONG=1;
+	public static final int DOUBLE=2;
+	public static final int BOOLEAN=3;
+	/** a nested object with a schema of its own */
+	public static final int OBJECT=4;
+	/** any JSON value, built like JSONParser.parse() does */
+	public static final int VALUE=5;
+
+	/** seeds tried per table size before the table is made larger */
+	private static final int MAX_SEEDS = 64;
+
+	private String[] names = new String[8];
+	private int[] types = new int[8];
+	private JSONSchema[] schemas = new JSONSchema[8];
+	private int size = 0;
+	private final Map indexes = new HashMap();
+
+	private boolean compiled = false;
+	/** the perfect hash table: field indexes, or -1 for empty slots */
+	private int[] table;
+	private int mask;
+	private int seed;
+	private char[][] nameChars;
+
+	/**
+	 * Adds a member of a primitive type, or of type VALUE.
+	 *
+	 * @param name
+	 * @param type - STRING, LONG, DOUBLE, BOOLEAN or VALUE.
+	 * @return this schema.
+	 *
+	 * @throws IllegalArgumentException if the type is not valid, or the name has been added already.
+	 * @throws IllegalStateException if the schema has been compiled.
+	 */
+	public JSONSchema add(String name, int type){
+		if(type != STRING && type != LONG && type != DOUBLE && type != BOOLEAN && type != VALUE)
+			throw new IllegalArgumentException("Invalid type: " + type);
+		return add(name, type, null);
+	}
+
+	/**
+	 * Adds a member of type OBJECT.
+	 *
+	 * @param name
+	 * @param schema - The schema of the nested object.
+	 * @return this schema.
+	 *
+	 * @throws IllegalArgumentException if the name has been added already.
+	 * @throws IllegalStateException if the schema has been compiled.
+	 */
+	public JSONSchema add(String name, JSONSchema schema){
+		if(schema == null)
+			throw new IllegalArgumentException("Missing schema of member " + name);
+		return add(name, OBJECT, schema);
+	}
+
+	private synchronized JSONSchema add(String name, int type, JSONSchema schema){
+		if(compiled)
+			throw new IllegalStateException("The schema has been compiled.");
+		if(indexes.containsKey(name))
+			throw new IllegalArgumentException("Duplicate member: " + name);
+		if(size == names.length){
+			String[] newNames = new String[size * 2];
+			int[] newTypes = new int[size * 2];
+			JSONSchema[] newSchemas = new JSONSchema[size * 2];
+			System.arraycopy(names, 0, newNames, 0, size);
+			System.arraycopy(types, 0, newTypes, 0, size);
+			System.arraycopy(schemas, 0, newSchemas, 0, size);
+			names = newNames;
+			types = newTypes;
+			schemas = newSchemas;
+		}
+		indexes.put(name, Integer.valueOf(size));
+		names[size] = name;
+		types[size] = type;
+		schemas[size] = schema;
+		size++;
+		return this;
+	}
+
+	/**
+	 * @return The number of members.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * @return The index of the member, used to access it in a JSONRecord, or -1 if there is no such member.
+	 */
+	public int indexOf(String name){
+		Integer index = (Integer)indexes.get(name);
+		return index == null ? -1 : index.intValue();
+	}
+
+	public String getName(int index){
+		checkIndex(index);
+		return names[index];
+	}
+
+	public int getType(int index){
+		checkIndex(index);
+		return types[index];
+	}
+
+	/**
+	 * @return The schema of a member of type OBJECT, or null.
+	 */
+	public JSONSchema getSchema(int index){
+		checkIndex(index);
+		return schemas[index];
+	}
+
+	private void checkIndex(int index){
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Invalid member index: " + index);
+	}
+
+	/**
+	 * @return A new, empty record of this schema.
+	 */
+	public JSONRecord newRecord(){
+		return new JSONRecord(this);
+	}
+
+	/**
+	 * Freezes the schema and its nested schemas, and builds their perfect hash tables.
+	 */
+	synchronized void compile(){
+		if(compiled)
+			return;
+		compiled = true;
+		nameChars = new char[size][];
+		for(int i = 0; i < size; i++)
+			nameChars[i] = names[i].toCharArray();
+		int tableSize = 1;
+		while(tableSize < size * 2)
+			tableSize <<= 1;
+		for(;;){
+			int[] candidate = new int[tableSize];
+			for(int s = 1; s <= MAX_SEEDS; s++){
+				if(fill(candidate, tableSize - 1, s)){
+					table = candidate;
+					mask = tableSize - 1;
+					seed = s;
+					for(int i = 0; i < size; i++){
+						if(schemas[i] != null)
+							schemas[i].compile();
+					}
+					return;
+				}
+			}
+			tableSize <<= 1;
+		}
+	}
+
+	private boolean fill(int[] candidate, int mask, int seed){
+		for(int i = 0; i < candidate.length; i++)
+			candidate[i] = -1;
+		for(int i = 0; i < size; i++){
+			int slot = hash(nameChars[i], 0, nameChars[i].length, seed) & mask;
+			if(candidate[slot] >= 0)
+				return false;
+			candidate[slot] = i;
+		}
+		return true;
+	}
+
+	private static int hash(char[] b, int off, int len, int seed){
+		int h = seed ^ len;
+		int end = off + len;
+		for(int i = off; i < end; i++)
+			h = 31 * h + b[i];
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		return h ^ (h >>> 13);
+	}
+
+	/**
+	 * Matches a key in a compiled schema without creating a String.
+	 *
+	 * @return The index of the member named by the characters from b[off] to b[off+len-1], or -1.
+	 */
+	int indexOf(char[] b, int off, int len){
+		int index = table[hash(b, off, len, seed) & mask];
+		if(index < 0)
+			return -1;
+		char[] name = nameChars[index];
+		if(name.length != len)
+			return -1;
+		for(int i = 0; i < len; i++){
+			if(name[i] != b[off + i])
+				return -1;
+		}
+		return index;
+	}
+}
@@ -0,0 +1,168 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Map;
+
+/**
+ * A parser compiled for JSON objects of a fixed shape, described by a JSONSchema.
+ * <p>
+ * Keys are matched against the perfect hash table of the schema while they are scanned, so no key
+ * strings are created, and members that are not in the schema are skipped without being decoded.
+ * Values are stored into the typed slots of a JSONRecord, which can be reused from one message to
+ * the next, or into a container of a ContainerFactory under the member names of the schema.
+ * <p>
+ * A typical loop:
+ * <pre>
+ * JSONSchemaParser parser = new JSONSchemaParser(order);
+ * JSONRecord record = order.newRecord();
+ * int price = order.indexOf("price");
+ * for(...){
+ *     parser.parse(in, record);
+ *     total += record.getDouble(price);
+ * }
+ * </pre>
+ * Please note that JSONSchemaParser is NOT thread-safe, while its schema may be shared.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class JSONSchemaParser {
+	private final JSONParser parser = new JSONParser();
+	private final JSONSchema schema;
+
+	/**
+	 * Compiles the schema, which cannot be changed afterwards.
+	 *
+	 * @param schema
+	 */
+	public JSONSchemaParser(JSONSchema schema){
+		schema.compile();
+		this.schema = schema;
+	}
+
+	public JSONSchema getSchema(){
+		return schema;
+	}
+
+	/**
+	 * @return The parser used internally, to configure it (the numeric mode of VALUE members).
+	 * 	It must not be used to parse anything else.
+	 */
+	public JSONParser getParser(){
+		return parser;
+	}
+
+	/**
+	 * @param in
+	 * @return A new record with the members of the object in the input.
+	 *
+	 * @throws IOException
+	 * @throws ParseException if the input is not a JSON object, or if a member does not match the type of the schema.
+	 */
+	public JSONRecord parse(Reader in) throws IOException, ParseException{
+		JSONRecord record = schema.newRecord();
+		parse(in, record);
+		return record;
+	}
+
+	/**
+	 * Parse the object in the input into a record, which is cleared first.
+	 *
+	 * @param in
+	 * @param record - A record of the schema of this parser.
+	 *
+	 * @throws IOException
+	 * @throws ParseException if the input is not a JSON object, or if a member does not match the type of the schema.
+	 */
+	public void parse(Reader in, JSONRecord record) throws IOException, ParseException{
+		checkRecord(record);
+		parser.reset(in);
+		parser.parseRecord(record);
+	}
+
+	/**
+	 * Parse UTF-8 encoded input into a record, which is cleared first.
+	 *
+	 * @see #parse(Reader, JSONRecord)
+	 */
+	public void parse(InputStream in, JSONRecord record) throws IOException, ParseException{
+		checkRecord(record);
+		parser.reset(in);
+		parser.parseRecord(record);
+	}
+
+	/**
+	 * Parse the UTF-8 encoded bytes from b[off] to b[off+len-1] into a record, which is cleared first.
+	 *
+	 * @see #parse(Reader, JSONRecord)
+	 */
+	public void parse(byte[] b, int off, int len, JSONRecord record) throws ParseException{
+		checkRecord(record);
+		parser.reset(b, off, len);
+		try{
+			parser.parseRecord(record);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+
+	/**
+	 * @see #parse(Reader)
+	 */
+	public JSONRecord parse(String s) throws ParseException{
+		try{
+			return parse(new StringReader(s));
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+
+	/**
+	 * Parse the object in the input into a container, with the members of the schema only.
+	 *
+	 * @param in
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers.
+	 * @return The container of the object; its keys are the member names of the schema.
+	 *
+	 * @throws IOException
+	 * @throws ParseException if the input is not a JSON object, or if a member does not match the type of the schema.
+	 */
+	public Map parse(Reader in, ContainerFactory containerFactory) throws IOException, ParseException{
+		parser.reset(in);
+		return parser.parseRecord(schema, containerFactory);
+	}
+
+	/**
+	 * Parse UTF-8 encoded input into a container.
+	 *
+	 * @see #parse(Reader, ContainerFactory)
+	 */
+	public Map parse(InputStream in, ContainerFactory containerFactory) throws IOException, ParseException{
+		parser.reset(in);
+		return parser.parseRecord(schema, containerFactory);
+	}
+
+	private void checkRecord(JSONRecord record){
+		if(record.getSchema() != schema)
+			throw new IllegalArgumentException("The record is not of the schema of this parser.");
+		record.clear();
+	}
+
+	/**
+	 * @return The position of the beginning of the current token,
+	 * 	in characters for text input and in bytes for UTF-8 input.
+	 */
+	public long getPosition(){
+		return parser.getPosition();
+	}
+}
@@ -0,0 +1,78 @@
+package org.json.simple.parser;
+
+/**
+ * A bounded cache of object keys, so that a key repeated across the objects of a document
+ * is decoded into a single String instance instead of one copy per object.
+ * <p>
+ * The cache is direct-mapped: a key replaces whatever key previously hashed to the same slot,
+ * so it never grows beyond its capacity. Keys longer than the maximum key length are not cached.
+ * <p>
+ * A KeyCache may be shared by several parsers, including parsers used by different threads.
+ * Slots are updated without locking; a lost update only costs an extra String.
+ *
+ * @see org.json.simple.parser.JSONParser#setKeyCache(KeyCache)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class KeyCache {
+	public static final int DEFAULT_CAPACITY = 256;
+	public static final int DEFAULT_MAX_KEY_LENGTH = 32;
+
+	private final String[] entries;
+	private final int mask;
+	private final int maxKeyLength;
+
+	public KeyCache(){
+		this(DEFAULT_CAPACITY, DEFAULT_MAX_KEY_LENGTH);
+	}
+
+	/**
+	 * @param capacity - The number of slots, rounded up to a power of two.
+	 * @param maxKeyLength - Keys longer than this are not cached.
+	 */
+	public KeyCache(int capacity, int maxKeyLength){
+		if(capacity <= 0 || capacity > (1 << 30))
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		if(maxKeyLength < 0)
+			throw new IllegalArgumentException("Invalid maximum key length: " + maxKeyLength);
+		int size = 1;
+		while(size < capacity)
+			size <<= 1;
+		this.entries = new String[size];
+		this.mask = size - 1;
+		this.maxKeyLength = maxKeyLength;
+	}
+
+	/**
+	 * @return A String equal to the characters from chars[offset] to chars[offset+length-1],
+	 * 	the cached instance if there is one.
+	 */
+	public String get(char[] chars, int offset, int length){
+		if(length > maxKeyLength)
+			return new String(chars, offset, length);
+		int h = 0;
+		int end = offset + length;
+		for(int i = offset; i < end; i++)
+			h = 31 * h + chars[i];
+		int slot = (h ^ (h >>> 16)) & mask;
+		String key = entries[slot];
+		if(key != null && key.length() == length){
+			int i = 0;
+			while(i < length && key.charAt(i) == chars[offset + i])
+				i++;
+			if(i == length)
+				return key;
+		}
+		key = new String(chars, offset, length);
+		entries[slot] = key;
+		return key;
+	}
+
+	/**
+	 * Removes all cached keys.
+	 */
+	public void clear(){
+		for(int i = 0; i < entries.length; i++)
+			entries[i] = null;
+	}
+}
@@ -0,0 +1,130 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+
+/**
+ * JSON text held in memory that backs the containers returned by JSONParser.parseLazy().
+ * The text has been validated already, so containers only record where their members start
+ * and decode a member on first access. All access to the text is serialized on this document.
+ *
+ * @see org.json.simple.parser.JSONParser#parseLazy(String)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class LazyDocument {
+	/** marks a member that has not been decoded yet */
+	static final Object UNDECODED = new Object();
+
+	private final Lexer lexer;
+
+	LazyDocument(Lexer lexer){
+		this.lexer = lexer;
+	}
+
+	/**
+	 * Decodes the value that starts at the position. Objects and arrays are returned as lazy containers.
+	 */
+	synchronized Object valueAt(long position){
+		try{
+			lexer.skipValues = false;
+			lexer.seek(position);
+			Yytoken token = lexer.yylex();
+			switch(token.type){
+			case Yytoken.TYPE_LEFT_BRACE:
+				return new LazyJSONObject(this, lexer.getPosition() + 1);
+			case Yytoken.TYPE_LEFT_SQUARE:
+				return new LazyJSONArray(this, lexer.getPosition() + 1);
+			case Yytoken.TYPE_VALUE:
+				return token.value;
+			default:
+				throw new IllegalStateException("Unexpected token " + token + " at position " + position + ".");
+			}
+		}
+		catch(IOException ie){
+			throw new IllegalStateException(ie);
+		}
+		catch(ParseException pe){
+			throw new IllegalStateException(pe);
+		}
+	}
+
+	/**
+	 * Records the keys and value positions of the object whose members start at the position.
+	 */
+	synchronized void index(LazyJSONObject object, long start){
+		try{
+			lexer.seek(start);
+			for(;;){
+				lexer.skipValues = false;
+				Yytoken token = lexer.yylex();
+				switch(token.type){
+				case Yytoken.TYPE_RIGHT_BRACE:
+					return;
+				case Yytoken.TYPE_COMMA:
+					break;
+				case Yytoken.TYPE_VALUE:
+					String key = (String)token.value;
+					lexer.skipValues = true;
+					do{
+						token = lexer.yylex();
+					}while(token.type == Yytoken.TYPE_COLON);
+					object.addMember(key, lexer.getPosition());
+					skip(token);
+					break;
+				default:
+					throw new IllegalStateException("Unexpected token " + token + " at position " + lexer.getPosition() + ".");
+				}
+			}
+		}
+		catch(IOException ie){
+			throw new IllegalStateException(ie);
+		}
+		catch(ParseException pe){
+			throw new IllegalStateException(pe);
+		}
+		finally{
+			lexer.skipValues = false;
+		}
+	}
+
+	/**
+	 * Records the value positions of the array whose elements start at the position.
+	 */
+	synchronized void index(LazyJSONArray array, long start){
+		try{
+			lexer.seek(start);
+			lexer.skipValues = true;
+			for(;;){
+				Yytoken token = lexer.yylex();
+				switch(token.type){
+				case Yytoken.TYPE_RIGHT_SQUARE:
+					return;
+				case Yytoken.TYPE_COMMA:
+					break;
+				case Yytoken.TYPE_VALUE:
+				case Yytoken.TYPE_LEFT_BRACE:
+				case Yytoken.TYPE_LEFT_SQUARE:
+					array.addElement(lexer.getPosition());
+					skip(token);
+					break;
+				default:
+					throw new IllegalStateException("Unexpected token " + token + " at position " + lexer.getPosition() + ".");
+				}
+			}
+		}
+		catch(IOException ie){
+			throw new IllegalStateException(ie);
+		}
+		catch(ParseException pe){
+			throw new IllegalStateException(pe);
+		}
+		finally{
+			lexer.skipValues = false;
+		}
+	}
+
+	private void skip(Yytoken token) throws IOException, ParseException{
+		if(token.type == Yytoken.TYPE_LEFT_BRACE || token.type == Yytoken.TYPE_LEFT_SQUARE)
+			lexer.skipContainer();
+	}
+}
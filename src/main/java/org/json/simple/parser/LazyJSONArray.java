@@ -0,0 +1,132 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONAware;
+import org.json.simple.JSONStreamAware;
+
+/**
+ * A JSON array that decodes its elements from the source text on demand.
+ * <p>
+ * The element positions are recorded on first access, and an element is decoded the first
+ * time get() or iteration touches it. set() works on the recorded elements; adding or removing
+ * elements first decodes everything into an ordinary JSONArray.
+ *
+ * @see org.json.simple.parser.JSONParser#parseLazy(String)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+class LazyJSONArray extends AbstractList implements RandomAccess, JSONAware, JSONStreamAware {
+	private final LazyDocument document;
+	private final long start;
+
+	private boolean indexed = false;
+	private long[] positions = new long[8];
+	private Object[] values = new Object[8];
+	private int count = 0;
+
+	/** all elements decoded, once the size of the array has been changed */
+	private JSONArray inflated = null;
+
+	LazyJSONArray(LazyDocument document, long start){
+		this.document = document;
+		this.start = start;
+	}
+
+	private void index(){
+		synchronized(document){
+			if(!indexed){
+				document.index(this, start);
+				indexed = true;
+			}
+		}
+	}
+
+	/**
+	 * Called by the document while indexing.
+	 */
+	void addElement(long position){
+		if(count == positions.length){
+			long[] newPositions = new long[count * 2];
+			Object[] newValues = new Object[count * 2];
+			System.arraycopy(positions, 0, newPositions, 0, count);
+			System.arraycopy(values, 0, newValues, 0, count);
+			positions = newPositions;
+			values = newValues;
+		}
+		positions[count] = position;
+		values[count] = LazyDocument.UNDECODED;
+		count++;
+	}
+
+	private void inflate(){
+		if(inflated == null){
+			index();
+			JSONArray list = new JSONArray();
+			for(int i = 0; i < count; i++)
+				list.add(get(i));
+			inflated = list;
+			positions = null;
+			values = null;
+		}
+	}
+
+	public int size(){
+		if(inflated != null)
+			return inflated.size();
+		index();
+		return count;
+	}
+
+	public Object get(int index){
+		if(inflated != null)
+			return inflated.get(index);
+		index();
+		if(index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+		synchronized(document){
+			Object value = values[index];
+			if(value == LazyDocument.UNDECODED){
+				value = document.valueAt(positions[index]);
+				values[index] = value;
+			}
+			return value;
+		}
+	}
+
+	public Object set(int index, Object element){
+		if(inflated != null)
+			return inflated.set(index, element);
+		Object old = get(index);
+		values[index] = element;
+		return old;
+	}
+
+	public void add(int index, Object element){
+		inflate();
+		inflated.add(index, element);
+		modCount++;
+	}
+
+	public Object remove(int index){
+		inflate();
+		modCount++;
+		return inflated.remove(index);
+	}
+
+	public void writeJSONString(Writer out) throws IOException{
+		JSONArray.writeJSONString(this, out);
+	}
+
+	public String toJSONString(){
+		return JSONArray.toJSONString(this);
+	}
+
+	public String toString(){
+		return toJSONString();
+	}
+}
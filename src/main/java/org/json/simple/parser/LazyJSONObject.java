@@ -0,0 +1,313 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.json.simple.JSONAware;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
+
+/**
+ * A JSON object that decodes its members from the source text on demand.
+ * <p>
+ * The keys and value positions are recorded on first access, and a value is decoded the first
+ * time get() or an entry of entrySet() touches it. put() and Entry.setValue() work on the
+ * recorded members; remove(), clear() and removals through the views or their iterators first
+ * decode everything into an ordinary JSONObject.
+ *
+ * @see org.json.simple.parser.JSONParser#parseLazy(String)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+class LazyJSONObject extends AbstractMap implements JSONAware, JSONStreamAware {
+	private final LazyDocument document;
+	private final long start;
+
+	private boolean indexed = false;
+	private String[] keys = new String[8];
+	private long[] positions = new long[8];
+	private Object[] values = new Object[8];
+	private int count = 0;
+	/** open addressing hash table holding member index + 1 */
+	private int[] table = new int[16];
+
+	/** all members decoded, once remove() or clear() has been called */
+	private JSONObject inflated = null;
+
+	LazyJSONObject(LazyDocument document, long start){
+		this.document = document;
+		this.start = start;
+	}
+
+	/**
+	 * Indexes the members on first use.
+	 *
+	 * @return The decoded members, once remove() or clear() has been called, else null.
+	 */
+	private JSONObject state(){
+		synchronized(document){
+			if(inflated == null && !indexed){
+				document.index(this, start);
+				indexed = true;
+			}
+			return inflated;
+		}
+	}
+
+	/**
+	 * Called by the document while indexing. A repeated key replaces the earlier member, like Map.put().
+	 */
+	void addMember(String key, long position){
+		int i = indexOf(key);
+		if(i >= 0){
+			positions[i] = position;
+			values[i] = LazyDocument.UNDECODED;
+			return;
+		}
+		add(key, position, LazyDocument.UNDECODED);
+	}
+
+	private void add(String key, long position, Object value){
+		if(count == keys.length){
+			int newLength = keys.length * 2;
+			String[] newKeys = new String[newLength];
+			long[] newPositions = new long[newLength];
+			Object[] newValues = new Object[newLength];
+			System.arraycopy(keys, 0, newKeys, 0, count);
+			System.arraycopy(positions, 0, newPositions, 0, count);
+			System.arraycopy(values, 0, newValues, 0, count);
+			keys = newKeys;
+			positions = newPositions;
+			values = newValues;
+		}
+		keys[count] = key;
+		positions[count] = position;
+		values[count] = value;
+		count++;
+		if(count * 2 > table.length)
+			rehash(table.length * 2);
+		else
+			insert(count - 1);
+	}
+
+	private void rehash(int size){
+		table = new int[size];
+		for(int i = 0; i < count; i++)
+			insert(i);
+	}
+
+	private void insert(int i){
+		int mask = table.length - 1;
+		int slot = hash(keys[i]) & mask;
+		while(table[slot] != 0)
+			slot = (slot + 1) & mask;
+		table[slot] = i + 1;
+	}
+
+	private static int hash(Object key){
+		int h = key == null ? 0 : key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private int indexOf(Object key){
+		int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		for(;;){
+			int i = table[slot] - 1;
+			if(i < 0)
+				return -1;
+			if(key == null ? keys[i] == null : key.equals(keys[i]))
+				return i;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private Object value(int i){
+		synchronized(document){
+			Object value = values[i];
+			if(value == LazyDocument.UNDECODED){
+				value = document.valueAt(positions[i]);
+				values[i] = value;
+			}
+			return value;
+		}
+	}
+
+	private JSONObject inflate(){
+		synchronized(document){
+			if(state() == null){
+				JSONObject map = new JSONObject();
+				for(int i = 0; i < count; i++)
+					map.put(keys[i], value(i));
+				inflated = map;
+				keys = null;
+				positions = null;
+				values = null;
+				table = null;
+			}
+			return inflated;
+		}
+	}
+
+	public int size(){
+		JSONObject map = state();
+		if(map != null)
+			return map.size();
+		return count;
+	}
+
+	public boolean containsKey(Object key){
+		JSONObject map = state();
+		if(map != null)
+			return map.containsKey(key);
+		return indexOf(key) >= 0;
+	}
+
+	public Object get(Object key){
+		JSONObject map = state();
+		if(map != null)
+			return map.get(key);
+		int i = indexOf(key);
+		if(i < 0)
+			return null;
+		return value(i);
+	}
+
+	public Object put(Object key, Object value){
+		JSONObject map = state();
+		if(map != null)
+			return map.put(key, value);
+		if(!(key instanceof String) && key != null)
+			return inflate().put(key, value);
+		int i = indexOf(key);
+		if(i < 0){
+			add((String)key, -1, value);
+			return null;
+		}
+		Object old = value(i);
+		values[i] = value;
+		return old;
+	}
+
+	public Object remove(Object key){
+		return inflate().remove(key);
+	}
+
+	public void clear(){
+		inflate().clear();
+	}
+
+	public Set entrySet(){
+		JSONObject map = state();
+		if(map != null)
+			return map.entrySet();
+		return new AbstractSet(){
+			public int size(){
+				return LazyJSONObject.this.size();
+			}
+
+			public Iterator iterator(){
+				JSONObject map = state();
+				if(map != null)
+					return map.entrySet().iterator();
+				// the recorded keys, which stay valid once a removal has decoded everything
+				final String[] names = keys;
+				final int size = count;
+				return new Iterator(){
+					private int next = 0;
+					private Member last = null;
+
+					public boolean hasNext(){
+						return next < size;
+					}
+
+					public Object next(){
+						if(next >= size)
+							throw new NoSuchElementException();
+						last = new Member(names[next], next);
+						next++;
+						return last;
+					}
+
+					public void remove(){
+						if(last == null)
+							throw new IllegalStateException();
+						inflate().remove(last.key);
+						last = null;
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * A member by its key, which reads and writes the decoded members once there are.
+	 */
+	private class Member implements Map.Entry {
+		private final String key;
+		private final int i;
+
+		Member(String key, int i){
+			this.key = key;
+			this.i = i;
+		}
+
+		public Object getKey(){
+			return key;
+		}
+
+		public Object getValue(){
+			JSONObject map = state();
+			if(map != null)
+				return map.get(key);
+			return value(i);
+		}
+
+		public Object setValue(Object value){
+			JSONObject map = state();
+			if(map != null)
+				return map.put(key, value);
+			Object old = value(i);
+			values[i] = value;
+			return old;
+		}
+
+		public boolean equals(Object o){
+			if(!(o instanceof Map.Entry))
+				return false;
+			Map.Entry e = (Map.Entry)o;
+			Object key = getKey();
+			Object value = getValue();
+			return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+				&& (value == null ? e.getValue() == null : value.equals(e.getValue()));
+		}
+
+		public int hashCode(){
+			Object key = getKey();
+			Object value = getValue();
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		public String toString(){
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	public void writeJSONString(Writer out) throws IOException{
+		JSONObject.writeJSONString(this, out);
+	}
+
+	public String toJSONString(){
+		return JSONObject.toJSONString(this);
+	}
+
+	public String toString(){
+		return toJSONString();
+	}
+}
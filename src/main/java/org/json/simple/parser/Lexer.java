@@ -0,0 +1,459 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.json.simple.JSONNumber;
+
+/**
+ * Common part of the JSON scanners. Subclasses own the input buffer and implement the hot
+ * scanning loops; this class keeps the shared token, the string decoding buffer, and the
+ * less frequent productions (escapes, literals, number boundaries) written against peek().
+ * <p>
+ * The scanner hands out one mutable token that is overwritten by every call to yylex(),
+ * so callers must copy what they need from it before asking for the next token.
+ *
+ * @see org.json.simple.parser.Yylex
+ * @see org.json.simple.parser.Utf8Lexer
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+abstract class Lexer {
+	/** index of the next unit (char or byte) to be scanned in the subclass buffer */
+	int pos;
+	/** index of the first unit that must survive a refill, or -1 */
+	int mark = -1;
+	/** position of the beginning of the current token */
+	long yychar;
+
+	/**
+	 * When set, string and number values are scanned but not converted:
+	 * strings yield SKIPPED_STRING and numbers yield null.
+	 */
+	boolean skipValues;
+	static final String SKIPPED_STRING = "";
+
+	/** set by the parser while the next string, if any, is an object key */
+	KeyCache keyCache;
+
+	/**
+	 * Set by the parser while the next string, if any, is an object key to match against a schema.
+	 * The key then yields SKIPPED_STRING, and keyIndex is set to the index of the member or -1.
+	 */
+	JSONSchema keySchema;
+	int keyIndex;
+
+	/** limits set from ParserLimits, checked while scanning */
+	long maxInputLength = Long.MAX_VALUE;
+	int maxStringLength = Integer.MAX_VALUE;
+	int maxNumberLength = Integer.MAX_VALUE;
+
+	/** one of JSONParser.NUMBER_LONG_DOUBLE, NUMBER_BIG_DECIMAL and NUMBER_LAZY */
+	int numericMode = JSONParser.NUMBER_LONG_DOUBLE;
+
+	/**
+	 * When set, numbers yield PRIMITIVE_NUMBER and are kept in the fields below instead, to be read
+	 * with longValue() and doubleValue() without creating Number objects.
+	 */
+	boolean primitiveNumbers;
+	static final Object PRIMITIVE_NUMBER = new Object();
+	private boolean numberIntegral;
+	private boolean numberNegative;
+	private boolean numberExact;
+	private long numberMantissa;
+	private int numberExponent;
+	/** the text of the number, only kept when the digits are not enough to convert it */
+	private String numberText;
+
+	/** exactly representable powers of ten, for the fast double conversion */
+	private static final double[] POW10 = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	/** exponents beyond this are left to the slow conversion */
+	private static final int MAX_EXPONENT = 100000;
+
+	final Yytoken token = new Yytoken(Yytoken.TYPE_EOF, null);
+
+	/** the number of tokens by type, set by the parser while it meters a document */
+	int[] tokenCounts;
+
+	/** holds the decoded characters of a string value */
+	char[] sb = new char[64];
+	int sbLength;
+
+	long getPosition(){
+		return yychar;
+	}
+
+	/**
+	 * Scans the next token.
+	 *
+	 * @return The shared token, of type Yytoken.TYPE_EOF at the end of input.
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	abstract Yytoken yylex() throws IOException, ParseException;
+
+	/**
+	 * @return The unit at pos + i (a char, or an unsigned byte), or -1 if the input ends before it.
+	 *         May move the buffer contents, but keeps everything from the mark (or from pos if unmarked).
+	 */
+	abstract int peek(int i) throws IOException, ParseException;
+
+	/**
+	 * Moves the scanner to the given position. Only valid for input that is held in memory entirely.
+	 */
+	abstract void seek(long position);
+
+	/**
+	 * Skips the rest of an object or array whose opening bracket has been consumed, by counting
+	 * brackets and skipping strings. Nothing is decoded and the skipped text is not validated.
+	 *
+	 * @return false if the input ends before the matching closing bracket.
+	 */
+	abstract boolean skipContainer() throws IOException, ParseException;
+
+	/**
+	 * @return The text of length len starting at pos, which must be ASCII.
+	 */
+	abstract String text(int len);
+
+	Yytoken set(int type, Object value){
+		if(tokenCounts != null && type >= 0)
+			tokenCounts[type]++;
+		token.type = type;
+		token.value = value;
+		return token;
+	}
+
+	/**
+	 * Decodes an escape sequence, the backslash has been consumed.
+	 * A backslash that does not start a valid escape sequence is taken literally.
+	 */
+	void scanEscape() throws IOException, ParseException {
+		int ch = peek(0);
+		switch(ch){
+		case '"':
+		case '\\':
+		case '/':
+			append((char)ch);
+			break;
+		case 'b':
+			append('\b');
+			break;
+		case 'f':
+			append('\f');
+			break;
+		case 'n':
+			append('\n');
+			break;
+		case 'r':
+			append('\r');
+			break;
+		case 't':
+			append('\t');
+			break;
+		case 'u':
+			int code = 0;
+			for(int i = 1; i <= 4; i++){
+				int d = hexValue(peek(i));
+				if(d < 0){
+					append('\\');
+					return;
+				}
+				code = (code << 4) | d;
+			}
+			append((char)code);
+			pos += 4;
+			break;
+		default:
+			append('\\');
+			return;
+		}
+		pos++;
+	}
+
+	static int hexValue(int ch){
+		if(ch >= '0' && ch <= '9')
+			return ch - '0';
+		if(ch >= 'a' && ch <= 'f')
+			return ch - 'a' + 10;
+		if(ch >= 'A' && ch <= 'F')
+			return ch - 'A' + 10;
+		return -1;
+	}
+
+	static boolean isDigit(int ch){
+		return ch >= '0' && ch <= '9';
+	}
+
+	/**
+	 * Creates a decoded string value, going through the key cache or the schema when scanning a key.
+	 */
+	String newString(char[] b, int off, int len) throws ParseException {
+		if(len > maxStringLength)
+			throw ParserLimits.exceeded(yychar, "maximum string length", maxStringLength);
+		JSONSchema schema = keySchema;
+		if(schema != null){
+			keyIndex = schema.indexOf(b, off, len);
+			return SKIPPED_STRING;
+		}
+		KeyCache cache = keyCache;
+		if(cache != null)
+			return cache.get(b, off, len);
+		return new String(b, off, len);
+	}
+
+	/**
+	 * Checks the length of a string that is skipped rather than decoded.
+	 */
+	void checkStringLength(long length) throws ParseException {
+		if(length > maxStringLength)
+			throw ParserLimits.exceeded(yychar, "maximum string length", maxStringLength);
+	}
+
+	void append(char ch) throws ParseException {
+		if(sbLength == sb.length)
+			growStringBuffer(sbLength + 1);
+		sb[sbLength++] = ch;
+	}
+
+	void append(char[] b, int off, int len) throws ParseException {
+		if(len == 0)
+			return;
+		if(sbLength + len > sb.length)
+			growStringBuffer(sbLength + len);
+		System.arraycopy(b, off, sb, sbLength, len);
+		sbLength += len;
+	}
+
+	void trimStringBuffer(int maxLength){
+		if(sb.length > maxLength)
+			sb = new char[64];
+	}
+
+	/**
+	 * Grows the string buffer, unless the string would exceed the maximum string length.
+	 */
+	void growStringBuffer(int minLength) throws ParseException {
+		if(minLength > maxStringLength)
+			throw ParserLimits.exceeded(yychar, "maximum string length", maxStringLength);
+		int newLength = Math.max(sb.length * 2, minLength);
+		char[] newBuffer = new char[newLength];
+		System.arraycopy(sb, 0, newBuffer, 0, sbLength);
+		sb = newBuffer;
+	}
+
+	void scanLiteral(String literal) throws IOException, ParseException {
+		for(int i = 1; i < literal.length(); i++){
+			if(peek(i) != literal.charAt(i))
+				throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf(literal.charAt(0)));
+		}
+		pos += literal.length();
+	}
+
+	/**
+	 * Scans -?[0-9]+(\.[0-9]+)?([eE][-+]?[0-9]+)? at pos, the longest match wins.
+	 * <p>
+	 * The digits are accumulated while they are scanned, so that the common numbers are converted
+	 * without creating a String. As long as exact is set, the value is mantissa * 10^exponent
+	 * (the mantissa is accumulated negatively, see accumulate()).
+	 */
+	Object scanNumber() throws IOException, ParseException {
+		mark = pos;
+		try{
+			int i = 0;
+			int first = peek(0);
+			boolean negative = first == '-';
+			if(negative)
+				i++;
+			long mantissa = 0;
+			int exponent = 0;
+			boolean exact = true;
+			int digitsStart = i;
+			int ch;
+			while(isDigit(ch = peek(i))){
+				if(exact){
+					long m = accumulate(mantissa, ch - '0', negative);
+					if(m > 0)
+						exact = false;
+					else
+						mantissa = m;
+				}
+				if(++i > maxNumberLength)
+					throw numberTooLong();
+			}
+			if(i == digitsStart)
+				throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf((char)first));
+			boolean integral = true;
+			if(peek(i) == '.' && isDigit(peek(i + 1))){
+				integral = false;
+				i++;
+				while(isDigit(ch = peek(i))){
+					if(exact){
+						long m = accumulate(mantissa, ch - '0', negative);
+						if(m > 0){
+							exact = false;
+						}
+						else{
+							mantissa = m;
+							exponent--;
+						}
+					}
+					if(++i > maxNumberLength)
+						throw numberTooLong();
+				}
+			}
+			int e = peek(i);
+			if(e == 'e' || e == 'E'){
+				int j = i + 1;
+				int sign = peek(j);
+				if(sign == '-' || sign == '+')
+					j++;
+				if(isDigit(peek(j))){
+					integral = false;
+					i = j;
+					int n = 0;
+					while(isDigit(ch = peek(i))){
+						if(n <= MAX_EXPONENT)
+							n = n * 10 + ch - '0';
+						if(++i > maxNumberLength)
+							throw numberTooLong();
+					}
+					if(n > MAX_EXPONENT)
+						exact = false;
+					exponent += sign == '-' ? -n : n;
+				}
+			}
+			Object value = null;
+			if(primitiveNumbers){
+				numberIntegral = integral;
+				numberNegative = negative;
+				numberExact = exact;
+				numberMantissa = mantissa;
+				numberExponent = exponent;
+				numberText = (integral ? exact : isFastDouble(exact, mantissa, exponent)) ? null : text(i);
+				value = PRIMITIVE_NUMBER;
+			}
+			else if(!skipValues){
+				value = toNumber(i, integral, negative, exact, mantissa, exponent);
+			}
+			pos += i;
+			return value;
+		}
+		finally{
+			mark = -1;
+		}
+	}
+
+	private ParseException numberTooLong(){
+		return ParserLimits.exceeded(yychar, "maximum number length", maxNumberLength);
+	}
+
+	/**
+	 * Checks the length of the input read so far against the maximum input length.
+	 */
+	void checkInputLength(long length) throws ParseException {
+		if(length > maxInputLength)
+			throw ParserLimits.exceeded(maxInputLength, "maximum input length", maxInputLength);
+	}
+
+	/**
+	 * Converts the number of length len starting at pos according to the numeric mode.
+	 * The text is only created for the lazy mode, or when the accumulated digits are not exact.
+	 */
+	private Number toNumber(int len, boolean integral, boolean negative, boolean exact, long mantissa, int exponent){
+		switch(numericMode){
+		case JSONParser.NUMBER_LAZY:
+			return new JSONNumber(text(len));
+		case JSONParser.NUMBER_BIG_DECIMAL:
+			if(integral)
+				return exact ? BigInteger.valueOf(negative ? mantissa : -mantissa) : new BigInteger(text(len));
+			return exact ? BigDecimal.valueOf(negative ? mantissa : -mantissa, -exponent) : new BigDecimal(text(len));
+		default:
+			if(integral)
+				return exact ? (Number)Long.valueOf(negative ? mantissa : -mantissa) : new BigInteger(text(len));
+			if(isFastDouble(exact, mantissa, exponent))
+				return Double.valueOf(fastDouble(negative, mantissa, exponent));
+			return Double.valueOf(text(len));
+		}
+	}
+
+	/**
+	 * Both the mantissa and the power of ten are exact doubles in this case, so the single
+	 * multiplication or division of fastDouble() is correctly rounded.
+	 */
+	private static boolean isFastDouble(boolean exact, long mantissa, int exponent){
+		return exact && mantissa >= -(1L << 53) && exponent >= -22 && exponent <= 22;
+	}
+
+	private static double fastDouble(boolean negative, long mantissa, int exponent){
+		double d = (double)-mantissa;
+		d = exponent < 0 ? d / POW10[-exponent] : d * POW10[exponent];
+		return negative ? -d : d;
+	}
+
+	/**
+	 * @return The last number scanned in primitiveNumbers mode, truncated or wrapped like a narrowing conversion.
+	 */
+	long longValue(){
+		if(!numberIntegral)
+			return (long)doubleValue();
+		if(numberExact)
+			return numberNegative ? numberMantissa : -numberMantissa;
+		return new BigInteger(numberText).longValue();
+	}
+
+	/**
+	 * @return The last number scanned in primitiveNumbers mode.
+	 * @throws ArithmeticException if it has a nonzero fraction or does not fit in a long.
+	 */
+	long longValueExact(){
+		if(numberIntegral && numberExact)
+			return numberNegative ? numberMantissa : -numberMantissa;
+		if(numberText == null)
+			return BigDecimal.valueOf(numberNegative ? numberMantissa : -numberMantissa, -numberExponent).longValueExact();
+		try{
+			return new BigDecimal(numberText).longValueExact();
+		}
+		catch(NumberFormatException e){
+			// an exponent beyond the range of BigDecimal
+			throw new ArithmeticException(numberText);
+		}
+	}
+
+	/**
+	 * @return The last number scanned in primitiveNumbers mode.
+	 */
+	double doubleValue(){
+		if(numberIntegral && numberExact)
+			return (double)longValue();
+		if(numberText == null)
+			return fastDouble(numberNegative, numberMantissa, numberExponent);
+		return Double.parseDouble(numberText);
+	}
+
+	/**
+	 * @return Whether the last number scanned in primitiveNumbers mode has neither a fraction nor an exponent.
+	 */
+	boolean isIntegralNumber(){
+		return numberIntegral;
+	}
+
+	/**
+	 * Accumulates one more digit of a long value negatively, so that Long.MIN_VALUE can be reached.
+	 *
+	 * @return The new accumulated value, or 1 on overflow.
+	 */
+	static long accumulate(long result, int digit, boolean negative){
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		if(result < limit / 10)
+			return 1;
+		result *= 10;
+		if(result < limit + digit)
+			return 1;
+		return result - digit;
+	}
+}
@@ -0,0 +1,38 @@
+package org.json.simple.parser;
+
+import org.json.simple.JSONMetrics;
+import org.json.simple.JSONMetricsListener;
+
+/**
+ * Connects JSONParser to the counters of JSONMetrics, which lives in another package and does not
+ * publish them. JSONMetrics installs its recorder here while it is initialized, before anyone else
+ * can, so nothing but JSONParser reports to it. This class is not part of the API.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public final class MetricsBridge {
+	private static volatile JSONMetricsListener recorder;
+
+	private MetricsBridge(){
+	}
+
+	/**
+	 * Called by JSONMetrics; any other call fails.
+	 */
+	public static void install(JSONMetricsListener recorder){
+		// JSONMetrics installs its recorder while it is initialized, which is done here first
+		JSONMetrics.getInstance();
+		synchronized(MetricsBridge.class){
+			if(MetricsBridge.recorder != null)
+				throw new IllegalStateException("The metrics recorder is already installed.");
+			MetricsBridge.recorder = recorder;
+		}
+	}
+
+	/**
+	 * @return The recorder of JSONMetrics, once JSONMetrics is initialized.
+	 */
+	static JSONMetricsListener recorder(){
+		return recorder;
+	}
+}
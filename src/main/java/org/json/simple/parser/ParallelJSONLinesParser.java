@@ -0,0 +1,341 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Parses UTF-8 encoded JSON Lines (newline-delimited JSON) on several cores.
+ * <p>
+ * The input is cut into chunks of about getChunkSize() bytes that end at a line break, and the
+ * chunks are parsed as tasks of a ForkJoinPool. Every worker thread parses with its own JSONParser,
+ * so one scanner per worker is reused for all of its lines. Blank lines are skipped.
+ * <p>
+ * In ordered mode the records of a chunk are buffered and handed to the consumer on the calling
+ * thread, in input order. In unordered mode the worker threads hand every record to the consumer
+ * as soon as it is parsed, so the consumer must be thread-safe. A bounded number of chunks is in
+ * flight at any time in both modes.
+ * <p>
+ * The first error stops the parsing. The position of a ParseException is then the byte position of
+ * the error in the whole input.
+ * <p>
+ * The settings of a ParallelJSONLinesParser must not be changed while it is parsing; otherwise it may
+ * be used by several threads.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class ParallelJSONLinesParser {
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+	/** bytes read at a time while looking for the end of a chunk in a file */
+	private static final int SCAN_SIZE = 4096;
+	/** bytes of a file mapped at a time, the chunks are slices of such a mapping */
+	private static final int MAP_WINDOW_SIZE = 1 << 26;
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private final ForkJoinPool pool;
+	private final ThreadLocal parsers = new ThreadLocal();
+	private ContainerFactory containerFactory = null;
+	private int numericMode = JSONParser.NUMBER_LONG_DOUBLE;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	/** for tests */
+	int mapWindowSize = MAP_WINDOW_SIZE;
+
+	/**
+	 * Uses the common ForkJoinPool.
+	 */
+	public ParallelJSONLinesParser(){
+		this(ForkJoinPool.commonPool());
+	}
+
+	public ParallelJSONLinesParser(ForkJoinPool pool){
+		this.pool = pool;
+	}
+
+	/**
+	 * @param containerFactory - Use this factory to create your own JSON object and JSON array containers,
+	 * 	it is called by several threads at once.
+	 */
+	public void setContainerFactory(ContainerFactory containerFactory){
+		this.containerFactory = containerFactory;
+	}
+
+	/**
+	 * @see JSONParser#setNumericMode(int)
+	 */
+	public void setNumericMode(int numericMode){
+		if(numericMode != JSONParser.NUMBER_LONG_DOUBLE && numericMode != JSONParser.NUMBER_BIG_DECIMAL && numericMode != JSONParser.NUMBER_LAZY)
+			throw new IllegalArgumentException("Invalid numeric mode: " + numericMode);
+		this.numericMode = numericMode;
+	}
+
+	public int getChunkSize(){
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize - The approximate number of bytes parsed by one task.
+	 */
+	public void setChunkSize(int chunkSize){
+		if(chunkSize <= 0)
+			throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Parse a file of UTF-8 encoded JSON Lines. The file is memory-mapped window by window, and the chunks
+	 * are slices of these windows, so the file may be larger than 2 GB.
+	 *
+	 * @param file
+	 * @param consumer - Receives the records: org.json.simple.JSONObject, org.json.simple.JSONArray,
+	 * 	java.lang.String, java.lang.Number, java.lang.Boolean or null (unless a container factory is used).
+	 * @param ordered - Whether the records are handed to the consumer in input order, on the calling thread.
+	 *
+	 * @throws IOException
+	 * @throws ParseException
+	 */
+	public void parse(Path file, Consumer<Object> consumer, boolean ordered) throws IOException, ParseException{
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try{
+			parse(new Input(channel, mapWindowSize), consumer, ordered);
+		}
+		finally{
+			channel.close();
+		}
+	}
+
+	/**
+	 * Parse the remaining bytes of a buffer, for example a MappedByteBuffer. The position of the buffer is not changed.
+	 *
+	 * @see #parse(Path, Consumer, boolean)
+	 */
+	public void parse(ByteBuffer buffer, Consumer<Object> consumer, boolean ordered) throws ParseException{
+		try{
+			parse(new Input(buffer.slice()), consumer, ordered);
+		}
+		catch(IOException ie){
+			/*
+			 * Actually it will never happen.
+			 */
+			throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, ie);
+		}
+	}
+
+	private void parse(Input input, Consumer<Object> consumer, boolean ordered) throws IOException, ParseException{
+		int window = pool.getParallelism() * 2;
+		ArrayDeque chunks = new ArrayDeque(window);
+		Run run = new Run(consumer, ordered);
+		try{
+			long start = 0;
+			while(start < input.size){
+				long end = input.lineEnd(Math.min(start + chunkSize, input.size));
+				if(chunks.size() == window)
+					complete((Chunk)chunks.poll(), run);
+				Chunk chunk = new Chunk(run, start, input.region(start, end));
+				chunks.add(chunk);
+				pool.execute(chunk);
+				start = end;
+			}
+			while(!chunks.isEmpty())
+				complete((Chunk)chunks.poll(), run);
+		}
+		finally{
+			run.stopped = true;
+			while(!chunks.isEmpty()){
+				Chunk chunk = (Chunk)chunks.poll();
+				if(!chunk.cancel(false))
+					chunk.quietlyJoin();
+			}
+		}
+	}
+
+	private void complete(Chunk chunk, Run run) throws IOException, ParseException{
+		chunk.join();
+		if(run.ordered){
+			for(int i = 0; i < chunk.records.size(); i++)
+				run.consumer.accept(chunk.records.get(i));
+			chunk.records = null;
+		}
+		Throwable failure = chunk.failure;
+		if(failure == null)
+			return;
+		if(failure instanceof ParseException)
+			throw (ParseException)failure;
+		if(failure instanceof IOException)
+			throw (IOException)failure;
+		if(failure instanceof RuntimeException)
+			throw (RuntimeException)failure;
+		throw (Error)failure;
+	}
+
+	private JSONParser parser(){
+		JSONParser parser = (JSONParser)parsers.get();
+		if(parser == null){
+			parser = new JSONParser();
+			parsers.set(parser);
+		}
+		parser.setNumericMode(numericMode);
+		return parser;
+	}
+
+	/**
+	 * The state shared by the chunks of one parse operation.
+	 */
+	private static final class Run {
+		final Consumer<Object> consumer;
+		final boolean ordered;
+		volatile boolean stopped = false;
+
+		Run(Consumer<Object> consumer, boolean ordered){
+			this.consumer = consumer;
+			this.ordered = ordered;
+		}
+	}
+
+	/**
+	 * Parses the lines of one chunk.
+	 */
+	private final class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = -2581424419226301523L;
+
+		private final Run run;
+		/** position of the chunk in the whole input */
+		private final long start;
+		private final ByteBuffer bytes;
+		/** the parsed records in ordered mode */
+		List records;
+		Throwable failure;
+
+		Chunk(Run run, long start, ByteBuffer bytes){
+			this.run = run;
+			this.start = start;
+			this.bytes = bytes;
+			if(run.ordered)
+				records = new ArrayList();
+		}
+
+		protected void compute(){
+			JSONParser parser = parser();
+			ByteBuffer b = bytes;
+			int limit = b.limit();
+			int lineStart = 0;
+			try{
+				while(lineStart < limit && !run.stopped){
+					int lineEnd = lineStart;
+					boolean blank = true;
+					for(;;){
+						if(lineEnd == limit)
+							break;
+						byte ch = b.get(lineEnd);
+						if(ch == '\n')
+							break;
+						if(ch != ' ' && ch != '\t' && ch != '\r')
+							blank = false;
+						lineEnd++;
+					}
+					if(!blank){
+						b.limit(lineEnd).position(lineStart);
+						Object record;
+						try{
+							record = parser.parse(b, containerFactory);
+						}
+						catch(ParseException pe){
+							pe.setPosition(start + lineStart + pe.getPosition());
+							throw pe;
+						}
+						finally{
+							b.limit(limit);
+						}
+						if(run.ordered)
+							records.add(record);
+						else
+							run.consumer.accept(record);
+					}
+					lineStart = lineEnd + 1;
+				}
+			}
+			catch(Throwable t){
+				failure = t;
+				run.stopped = true;
+			}
+			finally{
+				// the parser stays with the thread, it must not keep the mapping alive
+				parser.reset(EMPTY);
+			}
+		}
+	}
+
+	/**
+	 * A file or a buffer, cut into regions.
+	 */
+	private static final class Input {
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+		private final int windowSize;
+		final long size;
+		/** the whole buffer, or the mapped window of the file that the last region was sliced from */
+		private ByteBuffer window;
+		private long windowStart = 0;
+
+		Input(FileChannel channel, int windowSize) throws IOException{
+			this.channel = channel;
+			this.buffer = null;
+			this.windowSize = windowSize;
+			this.size = channel.size();
+		}
+
+		Input(ByteBuffer buffer){
+			this.channel = null;
+			this.buffer = buffer;
+			this.windowSize = 0;
+			this.size = buffer.remaining();
+			this.window = buffer;
+		}
+
+		/**
+		 * @return The position after the first line break at or after the position, or the size.
+		 */
+		long lineEnd(long position) throws IOException{
+			if(buffer != null){
+				int i = (int)position;
+				while(i < size){
+					if(buffer.get(i++) == '\n')
+						break;
+				}
+				return i;
+			}
+			ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+			while(position < size){
+				scan.clear();
+				int n = channel.read(scan, position);
+				if(n < 0)
+					break;
+				for(int i = 0; i < n; i++){
+					if(scan.get(i) == '\n')
+						return position + i + 1;
+				}
+				position += n;
+			}
+			return size;
+		}
+
+		ByteBuffer region(long start, long end) throws IOException{
+			if(end - start > Integer.MAX_VALUE)
+				throw new IOException("Line too long at position " + start + ".");
+			if(window == null || start < windowStart || end - windowStart > window.capacity()){
+				windowStart = start;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.max(end - start, Math.min(windowSize, size - start)));
+			}
+			ByteBuffer b = window.duplicate();
+			b.limit((int)(end - windowStart)).position((int)(start - windowStart));
+			return b.slice();
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package org.json.simple.parser;
+
+/**
+ * Hooks for the org.json.simple.Parse events of JDK Flight Recorder. This version for Java 8 does
+ * nothing; the multi-release jar replaces it on Java 11 and later with the one in src/main/java11.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class ParseEvents {
+	private ParseEvents(){
+	}
+
+	/**
+	 * @return The started event, or null if it is not enabled.
+	 */
+	static Object begin(){
+		return null;
+	}
+
+	/**
+	 * Commits an event returned by begin().
+	 *
+	 * @param length - The length of the input, in chars or bytes.
+	 * @param bytes - Whether the input was UTF-8 encoded bytes.
+	 * @param nodes - The number of values, objects and arrays.
+	 * @param maxDepth - The maximum nesting depth.
+	 * @param type - The ContainerFactory, ContentHandler or bound class, or null.
+	 */
+	static void end(Object event, long length, boolean bytes, long nodes, int maxDepth, Class type){
+	}
+}
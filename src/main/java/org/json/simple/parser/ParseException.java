@@ -12,10 +12,13 @@ public class ParseException extends Exception {
 	public static final int ERROR_UNEXPECTED_CHAR = 0;
 	public static final int ERROR_UNEXPECTED_TOKEN = 1;
 	public static final int ERROR_UNEXPECTED_EXCEPTION = 2;
+	/** a limit of ParserLimits has been exceeded */
+	public static final int ERROR_LIMIT_EXCEEDED = 3;
 
 	private int errorType;
 	private Object unexpectedObject;
-	private int position;
+	private long position;
+	private long lineNumber = -1;
 	
 	public ParseException(int errorType){
 		this(-1, errorType, null);
@@ -25,7 +28,7 @@ public class ParseException extends Exception {
 		this(-1, errorType, unexpectedObject);
 	}
 	
-	public ParseException(int position, int errorType, Object unexpectedObject){
+	public ParseException(long position, int errorType, Object unexpectedObject){
 		this.position = position;
 		this.errorType = errorType;
 		this.unexpectedObject = unexpectedObject;
@@ -42,16 +45,31 @@ public class ParseException extends Exception {
 	/**
 	 * @see org.json.simple.parser.JSONParser#getPosition()
 	 * 
-	 * @return The character position (starting with 0) of the input where the error occurs.
+	 * @return The character position (starting with 0) of the input where the error occurs,
+	 * 	or the byte position for UTF-8 input.
 	 */
-	public int getPosition() {
+	public long getPosition() {
 		return position;
 	}
 	
-	public void setPosition(int position) {
+	public void setPosition(long position) {
 		this.position = position;
 	}
 	
+	/**
+	 * @see org.json.simple.parser.JSONLinesReader
+	 * 
+	 * @return The line (starting with 1) where the error occurs when the input is parsed line by line,
+	 * 	or -1. The position is then counted from the beginning of that line.
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+	
+	public void setLineNumber(long lineNumber) {
+		this.lineNumber = lineNumber;
+	}
+	
 	/**
 	 * @see org.json.simple.parser.Yytoken
 	 * 
@@ -59,6 +77,7 @@ public class ParseException extends Exception {
 	 * 		   	ERROR_UNEXPECTED_CHAR		java.lang.Character
 	 * 			ERROR_UNEXPECTED_TOKEN		org.json.simple.parser.Yytoken
 	 * 			ERROR_UNEXPECTED_EXCEPTION	java.lang.Exception
+	 * 			ERROR_LIMIT_EXCEEDED		java.lang.String, the limit
 	 */
 	public Object getUnexpectedObject() {
 		return unexpectedObject;
@@ -70,19 +89,23 @@ public class ParseException extends Exception {
 	
 	public String getMessage() {
 		StringBuffer sb = new StringBuffer();
+		String where = lineNumber < 0 ? String.valueOf(position) : position + " of line " + lineNumber;
 		
 		switch(errorType){
 		case ERROR_UNEXPECTED_CHAR:
-			sb.append("Unexpected character (").append(unexpectedObject).append(") at position ").append(position).append(".");
+			sb.append("Unexpected character (").append(unexpectedObject).append(") at position ").append(where).append(".");
 			break;
 		case ERROR_UNEXPECTED_TOKEN:
-			sb.append("Unexpected token ").append(unexpectedObject).append(" at position ").append(position).append(".");
+			sb.append("Unexpected token ").append(unexpectedObject).append(" at position ").append(where).append(".");
 			break;
 		case ERROR_UNEXPECTED_EXCEPTION:
-			sb.append("Unexpected exception at position ").append(position).append(": ").append(unexpectedObject);
+			sb.append("Unexpected exception at position ").append(where).append(": ").append(unexpectedObject);
+			break;
+		case ERROR_LIMIT_EXCEEDED:
+			sb.append("Limit exceeded (").append(unexpectedObject).append(") at position ").append(where).append(".");
 			break;
 		default:
-			sb.append("Unkown error at position ").append(position).append(".");
+			sb.append("Unkown error at position ").append(where).append(".");
 			break;
 		}
 		return sb.toString();
@@ -0,0 +1,113 @@
+package org.json.simple.parser;
+
+/**
+ * Resource limits for parsing untrusted input. A violation fails fast with a ParseException of type
+ * ParseException.ERROR_LIMIT_EXCEEDED at the position where the limit was crossed, before the
+ * offending value has been accumulated.
+ * <p>
+ * Every limit is unlimited (Integer.MAX_VALUE or Long.MAX_VALUE) by default. The string and number
+ * lengths and the input length are checked by the scanner in every parsing mode. The depth is checked
+ * whenever the parser tracks nesting, that is in every mode but extract(). The numbers of object members
+ * and array elements are checked for the containers the parser builds.
+ * <p>
+ * For example:
+ * <pre>
+ * ParserLimits limits = new ParserLimits();
+ * limits.setMaxDepth(64);
+ * limits.setMaxStringLength(1 &lt;&lt; 20);
+ * parser.setLimits(limits);
+ * </pre>
+ *
+ * @see org.json.simple.parser.JSONParser#setLimits(ParserLimits)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public class ParserLimits {
+	private int maxDepth = Integer.MAX_VALUE;
+	private long maxInputLength = Long.MAX_VALUE;
+	private int maxStringLength = Integer.MAX_VALUE;
+	private int maxNumberLength = Integer.MAX_VALUE;
+	private int maxObjectMembers = Integer.MAX_VALUE;
+	private int maxArrayLength = Integer.MAX_VALUE;
+
+	public int getMaxDepth(){
+		return maxDepth;
+	}
+
+	/**
+	 * @param maxDepth - The maximum nesting depth of objects and arrays; the root container is at depth 1.
+	 */
+	public void setMaxDepth(int maxDepth){
+		this.maxDepth = check(maxDepth);
+	}
+
+	public long getMaxInputLength(){
+		return maxInputLength;
+	}
+
+	/**
+	 * @param maxInputLength - The maximum length of the input, in characters, or in bytes for UTF-8 input.
+	 */
+	public void setMaxInputLength(long maxInputLength){
+		if(maxInputLength <= 0)
+			throw new IllegalArgumentException("Invalid limit: " + maxInputLength);
+		this.maxInputLength = maxInputLength;
+	}
+
+	public int getMaxStringLength(){
+		return maxStringLength;
+	}
+
+	/**
+	 * @param maxStringLength - The maximum length of a decoded string value or object key, in characters.
+	 */
+	public void setMaxStringLength(int maxStringLength){
+		this.maxStringLength = check(maxStringLength);
+	}
+
+	public int getMaxNumberLength(){
+		return maxNumberLength;
+	}
+
+	/**
+	 * @param maxNumberLength - The maximum length of a number, in characters: its digits, sign, decimal point and exponent.
+	 */
+	public void setMaxNumberLength(int maxNumberLength){
+		this.maxNumberLength = check(maxNumberLength);
+	}
+
+	public int getMaxObjectMembers(){
+		return maxObjectMembers;
+	}
+
+	/**
+	 * @param maxObjectMembers - The maximum number of members of an object.
+	 */
+	public void setMaxObjectMembers(int maxObjectMembers){
+		this.maxObjectMembers = check(maxObjectMembers);
+	}
+
+	public int getMaxArrayLength(){
+		return maxArrayLength;
+	}
+
+	/**
+	 * @param maxArrayLength - The maximum number of elements of an array.
+	 */
+	public void setMaxArrayLength(int maxArrayLength){
+		this.maxArrayLength = check(maxArrayLength);
+	}
+
+	private static int check(int limit){
+		if(limit <= 0)
+			throw new IllegalArgumentException("Invalid limit: " + limit);
+		return limit;
+	}
+
+	/**
+	 * @return The exception for a limit that has been exceeded at the position.
+	 */
+	static ParseException exceeded(long position, String limit, long value){
+		return new ParseException(position, ParseException.ERROR_LIMIT_EXCEEDED, limit + " " + value);
+	}
+}
@@ -0,0 +1,41 @@
+package org.json.simple.parser;
+
+/**
+ * A projection given by a set of key paths, see Projection.include() and Projection.exclude().
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+class PathProjection implements Projection {
+	private final boolean include;
+	private final String[][] paths;
+
+	PathProjection(boolean include, String[] jsonPointers){
+		this.include = include;
+		this.paths = new String[jsonPointers.length][];
+		for(int i = 0; i < jsonPointers.length; i++)
+			paths[i] = JSONParser.parsePointer(jsonPointers[i]);
+	}
+
+	public boolean includes(String[] path, int depth){
+		for(int i = 0; i < paths.length; i++){
+			String[] p = paths[i];
+			if(include){
+				// an ancestor or a descendant of an included path
+				if(startsWith(path, p, Math.min(depth, p.length)))
+					return true;
+			}
+			else if(p.length <= depth && startsWith(path, p, p.length)){
+				return false;
+			}
+		}
+		return !include;
+	}
+
+	private static boolean startsWith(String[] path, String[] p, int n){
+		for(int d = 0; d < n; d++){
+			if(!p[d].equals(path[d]))
+				return false;
+		}
+		return true;
+	}
+}
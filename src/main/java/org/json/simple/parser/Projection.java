@@ -0,0 +1,43 @@
+package org.json.simple.parser;
+
+/**
+ * Selects the object members that are built when parsing into a tree. The value of a member that is
+ * not included is skipped by the lexer: its strings and numbers are not decoded, and no containers are
+ * created for it.
+ * <p>
+ * A member is identified by its key path: the names of the enclosing object members from the root,
+ * followed by its own name. Arrays do not add to the path, so the elements of an array member are
+ * projected like the member itself.
+ *
+ * @see org.json.simple.parser.JSONParser#parse(java.io.Reader, ContainerFactory, Projection)
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+public interface Projection {
+	/**
+	 * @param path - The key path of the member, path[depth-1] being its own name. The array is reused
+	 * 	by the parser, and its elements from path[depth] on are undefined.
+	 * @param depth - The length of the key path.
+	 * @return true to build the member, false to skip it.
+	 */
+	boolean includes(String[] path, int depth);
+
+	/**
+	 * @param paths - Key paths in JSON Pointer syntax, for example "/header/type".
+	 * @return A projection that builds only the members at the given paths, their descendants, and the
+	 * 	members on the way to them.
+	 * @throws IllegalArgumentException if a path is not empty and does not start with '/'.
+	 */
+	static Projection include(String... paths){
+		return new PathProjection(true, paths);
+	}
+
+	/**
+	 * @param paths - Key paths in JSON Pointer syntax, for example "/debug".
+	 * @return A projection that skips the members at the given paths, and builds everything else.
+	 * @throws IllegalArgumentException if a path is not empty and does not start with '/'.
+	 */
+	static Projection exclude(String... paths){
+		return new PathProjection(false, paths);
+	}
+}
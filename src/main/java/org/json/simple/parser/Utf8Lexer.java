@@ -0,0 +1,595 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Scanner for UTF-8 encoded JSON text.
+ * <p>
+ * Structural characters, literals and numbers are ASCII, so they are scanned directly on the
+ * bytes; only the bodies of string values are decoded into characters. Malformed UTF-8 inside
+ * strings is replaced by U+FFFD, the way java.io.InputStreamReader does.
+ * <p>
+ * Positions are byte offsets from the beginning of the input.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+class Utf8Lexer extends Lexer {
+	/** default initial size of the lookahead buffer for stream input */
+	static final int BUFFER_SIZE = 16384;
+
+	/** size of the windows a file is mapped in */
+	private static final int MAP_WINDOW_SIZE = 1 << 26;
+
+	private static final char REPLACEMENT = '\uFFFD';
+
+	/** size of the windows a file is mapped in, may be lowered for testing */
+	int mapWindowSize = MAP_WINDOW_SIZE;
+
+	/** initial size of the lookahead buffer, allocated when stream input is first scanned */
+	private final int bufferSize;
+
+	private InputStream in;
+	private FileChannel channel;
+	private long channelSize;
+	private byte[] streamBuffer;
+	/** the bytes being scanned; indexes are absolute, its position and limit are never touched */
+	private ByteBuffer buffer;
+	/** index after the last valid byte in the buffer */
+	private int limit;
+	/** number of bytes discarded from the buffer so far, minus the index of the first byte */
+	private long offset;
+	private boolean eof;
+	/** set when the input is fed by feed() instead of being read */
+	private boolean feeding;
+	private boolean feedEnded;
+	/**
+	 * Set when fed input has ended inside a string. The next yylex() continues the string at pos,
+	 * with the part decoded so far in the string buffer, or skipped so far in skippedLength.
+	 */
+	private boolean inString;
+	private long skippedLength;
+
+	/**
+	 * Thrown by yylex() when fed input ends inside a token. The scanner has been moved back to the
+	 * beginning of the token, so that yylex() can be called again once more input has been fed;
+	 * only a string is continued where the input ended, so that a long one is not scanned again
+	 * with every fragment.
+	 */
+	static final class NeedMoreInput extends RuntimeException {
+		private static final long serialVersionUID = 4528925961436270475L;
+
+		private NeedMoreInput(){
+			super(null, null, false, false);
+		}
+	}
+
+	static final NeedMoreInput NEED_MORE_INPUT = new NeedMoreInput();
+
+	Utf8Lexer(){
+		this(BUFFER_SIZE);
+	}
+
+	Utf8Lexer(int bufferSize){
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Drops the references to the input, and the buffers that have grown beyond maxBufferSize.
+	 * The scanner must be reset before it is used again.
+	 */
+	void release(int maxBufferSize){
+		in = null;
+		channel = null;
+		buffer = null;
+		if(streamBuffer != null && streamBuffer.length > maxBufferSize)
+			streamBuffer = null;
+		trimStringBuffer(maxBufferSize);
+	}
+
+	/**
+	 * Resets the scanner to read the bytes from offset off to off + len of the array.
+	 */
+	void yyreset(byte[] b, int off, int len){
+		yyreset(ByteBuffer.wrap(b, off, len));
+	}
+
+	/**
+	 * Resets the scanner to read the remaining bytes of the buffer.
+	 * The position and limit of the buffer are not changed.
+	 */
+	void yyreset(ByteBuffer b){
+		in = null;
+		channel = null;
+		feeding = false;
+		inString = false;
+		buffer = b;
+		pos = b.position();
+		limit = b.limit();
+		offset = -pos;
+		mark = -1;
+		eof = true;
+		yychar = 0;
+	}
+
+	/**
+	 * Resets the scanner to read from a new byte stream.
+	 * Does not close the old stream.
+	 */
+	void yyreset(InputStream in){
+		this.in = in;
+		channel = null;
+		feeding = false;
+		inString = false;
+		if(streamBuffer == null)
+			streamBuffer = new byte[bufferSize];
+		buffer = ByteBuffer.wrap(streamBuffer);
+		pos = limit = 0;
+		offset = 0;
+		mark = -1;
+		eof = false;
+		yychar = 0;
+	}
+
+	/**
+	 * Resets the scanner to read a file from the channel, which is mapped into memory
+	 * window by window and scanned in place.
+	 * Does not close the old channel.
+	 */
+	void yyreset(FileChannel channel) throws IOException {
+		in = null;
+		this.channel = channel;
+		feeding = false;
+		inString = false;
+		channelSize = channel.size();
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channelSize, mapWindowSize));
+		pos = 0;
+		limit = buffer.limit();
+		offset = 0;
+		mark = -1;
+		eof = false;
+		yychar = 0;
+	}
+
+	/**
+	 * Resets the scanner to scan the input passed to feed(), until endOfInput() is called.
+	 */
+	void yyresetFeed(){
+		in = null;
+		channel = null;
+		feeding = true;
+		feedEnded = false;
+		inString = false;
+		if(streamBuffer == null)
+			streamBuffer = new byte[bufferSize];
+		buffer = ByteBuffer.wrap(streamBuffer);
+		pos = limit = 0;
+		offset = 0;
+		mark = -1;
+		eof = false;
+		yychar = 0;
+	}
+
+	/**
+	 * Appends the remaining bytes of src to the input, and moves the position of src to its limit.
+	 * Only the bytes from the beginning of the current token on, or from where an unfinished string
+	 * ended, are kept in the buffer.
+	 */
+	void feed(ByteBuffer src){
+		if(pos > 0){
+			System.arraycopy(streamBuffer, pos, streamBuffer, 0, limit - pos);
+			offset += pos;
+			limit -= pos;
+			pos = 0;
+		}
+		int n = src.remaining();
+		if(limit + n > streamBuffer.length){
+			byte[] newBuffer = new byte[Math.max(streamBuffer.length * 2, limit + n)];
+			System.arraycopy(streamBuffer, 0, newBuffer, 0, limit);
+			streamBuffer = newBuffer;
+			buffer = ByteBuffer.wrap(streamBuffer);
+		}
+		src.get(streamBuffer, limit, n);
+		limit += n;
+	}
+
+	void endOfInput(){
+		feedEnded = true;
+	}
+
+	Yytoken yylex() throws IOException, ParseException {
+		if(inString){
+			inString = false;
+			return string();
+		}
+		for(;;){
+			yychar = offset + pos;
+			if(pos >= limit && !fill()){
+				yychar = offset + pos;
+				return set(Yytoken.TYPE_EOF, null);
+			}
+			int ch = buffer.get(pos);
+			yychar = offset + pos;
+			checkInputLength(yychar + 1);
+			switch(ch){
+			case ' ':
+			case '\t':
+			case '\r':
+			case '\n':
+				pos++;
+				break;
+			case '{':
+				pos++;
+				return set(Yytoken.TYPE_LEFT_BRACE, null);
+			case '}':
+				pos++;
+				return set(Yytoken.TYPE_RIGHT_BRACE, null);
+			case '[':
+				pos++;
+				return set(Yytoken.TYPE_LEFT_SQUARE, null);
+			case ']':
+				pos++;
+				return set(Yytoken.TYPE_RIGHT_SQUARE, null);
+			case ',':
+				pos++;
+				return set(Yytoken.TYPE_COMMA, null);
+			case ':':
+				pos++;
+				return set(Yytoken.TYPE_COLON, null);
+			case '"':
+				pos++;
+				sbLength = 0;
+				skippedLength = 0;
+				return string();
+			case 't':
+				scanLiteral("true");
+				return set(Yytoken.TYPE_VALUE, Boolean.TRUE);
+			case 'f':
+				scanLiteral("false");
+				return set(Yytoken.TYPE_VALUE, Boolean.FALSE);
+			case 'n':
+				scanLiteral("null");
+				return set(Yytoken.TYPE_VALUE, null);
+			default:
+				if(ch == '-' || (ch >= '0' && ch <= '9'))
+					return set(Yytoken.TYPE_VALUE, scanNumber());
+				throw new ParseException(yychar, ParseException.ERROR_UNEXPECTED_CHAR, Character.valueOf(unexpectedChar()));
+			}
+		}
+	}
+
+	/**
+	 * Reads more bytes into the buffer, keeping everything from the mark (or from pos if unmarked).
+	 *
+	 * @return true if at least one more byte is available.
+	 */
+	private boolean fill() throws IOException, ParseException {
+		if(eof)
+			return false;
+		if(feeding){
+			if(feedEnded){
+				eof = true;
+				return false;
+			}
+			pos = (int)(yychar - offset);
+			mark = -1;
+			throw NEED_MORE_INPUT;
+		}
+		if(channel != null)
+			return mapNextWindow();
+		int keep = mark >= 0 ? mark : pos;
+		if(keep > 0){
+			System.arraycopy(streamBuffer, keep, streamBuffer, 0, limit - keep);
+			offset += keep;
+			limit -= keep;
+			pos -= keep;
+			if(mark >= 0)
+				mark = 0;
+		}
+		if(limit == streamBuffer.length){
+			byte[] newBuffer = new byte[streamBuffer.length * 2];
+			System.arraycopy(streamBuffer, 0, newBuffer, 0, limit);
+			streamBuffer = newBuffer;
+			buffer = ByteBuffer.wrap(streamBuffer);
+		}
+		int n = in.read(streamBuffer, limit, streamBuffer.length - limit);
+		if(n == 0){
+			int c = in.read();
+			if(c >= 0){
+				streamBuffer[limit++] = (byte)c;
+				checkInputLength(offset + limit);
+				return true;
+			}
+			n = -1;
+		}
+		if(n < 0){
+			eof = true;
+			return false;
+		}
+		limit += n;
+		checkInputLength(offset + limit);
+		return true;
+	}
+
+	/**
+	 * Maps the window of the file that starts at the mark (or at pos if unmarked).
+	 * The window grows if a single token does not fit into it.
+	 */
+	private boolean mapNextWindow() throws IOException, ParseException {
+		int keep = mark >= 0 ? mark : pos;
+		long start = offset + keep;
+		if(offset + limit >= channelSize){
+			eof = true;
+			return false;
+		}
+		long size = Math.min(channelSize - start, Math.max(mapWindowSize, 2L * (limit - keep)));
+		if(size > Integer.MAX_VALUE)
+			size = Integer.MAX_VALUE;
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+		offset = start;
+		limit = (int)size;
+		pos -= keep;
+		if(mark >= 0)
+			mark = 0;
+		checkInputLength(offset + limit);
+		return true;
+	}
+
+	int peek(int i) throws IOException, ParseException {
+		while(pos + i >= limit){
+			if(!fill())
+				return -1;
+		}
+		return buffer.get(pos + i) & 0xFF;
+	}
+
+	/**
+	 * Scans the rest of a string, from pos on.
+	 */
+	private Yytoken string() throws IOException, ParseException {
+		String s;
+		try{
+			s = skipValues ? skipString() : scanString();
+		}
+		catch(NeedMoreInput e){
+			inString = true;
+			throw e;
+		}
+		if(s == null){
+			yychar = offset + pos;
+			return set(Yytoken.TYPE_EOF, null);
+		}
+		return set(Yytoken.TYPE_VALUE, s);
+	}
+
+	/**
+	 * Scans the body of a string, the opening quote and the part decoded into the string buffer
+	 * have been consumed. When fed input ends inside the string, pos is left after the decoded part.
+	 *
+	 * @return The decoded string, or null if the input ends inside the string.
+	 */
+	private String scanString() throws IOException, ParseException {
+		for(;;){
+			ByteBuffer b = buffer;
+			int p = pos;
+			int l = limit;
+			int ch = 0;
+			while(p < l){
+				if(sbLength == sb.length)
+					growStringBuffer(sbLength + 1);
+				int n = Math.min(l, p + sb.length - sbLength);
+				char[] chars = sb;
+				int count = sbLength;
+				while(p < n){
+					ch = b.get(p);
+					if(ch == '"' || ch == '\\' || ch < 0)
+						break;
+					chars[count++] = (char)ch;
+					p++;
+				}
+				sbLength = count;
+				if(p < n)
+					break;
+			}
+			pos = p;
+			try{
+				if(p == l){
+					if(!fill())
+						return null;
+					continue;
+				}
+				if(ch == '"'){
+					pos = p + 1;
+					return newString(sb, 0, sbLength);
+				}
+				if(ch == '\\'){
+					pos++;
+					scanEscape();
+				}
+				else{
+					decodeMultiByte();
+				}
+			}
+			catch(NeedMoreInput e){
+				// the escape or multi-byte sequence at p is decoded again
+				pos = p;
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Decodes one multi-byte UTF-8 sequence at pos into the string buffer.
+	 */
+	private void decodeMultiByte() throws IOException, ParseException {
+		int cp = decode();
+		if(cp < 0){
+			append(REPLACEMENT);
+			pos++;
+			return;
+		}
+		if(cp >= 0x10000){
+			append(Character.highSurrogate(cp));
+			append(Character.lowSurrogate(cp));
+			pos += 4;
+		}
+		else{
+			append((char)cp);
+			pos += cp >= 0x800 ? 3 : 2;
+		}
+	}
+
+	/**
+	 * @return The code point of the multi-byte sequence at pos, or -1 if it is malformed.
+	 */
+	private int decode() throws IOException, ParseException {
+		int b0 = peek(0);
+		int n;
+		int cp;
+		int min;
+		if(b0 >= 0xC2 && b0 <= 0xDF){
+			n = 1;
+			cp = b0 & 0x1F;
+			min = 0x80;
+		}
+		else if(b0 >= 0xE0 && b0 <= 0xEF){
+			n = 2;
+			cp = b0 & 0x0F;
+			min = 0x800;
+		}
+		else if(b0 >= 0xF0 && b0 <= 0xF4){
+			n = 3;
+			cp = b0 & 0x07;
+			min = 0x10000;
+		}
+		else{
+			return -1;
+		}
+		for(int i = 1; i <= n; i++){
+			int b = peek(i);
+			if((b & 0xC0) != 0x80)
+				return -1;
+			cp = (cp << 6) | (b & 0x3F);
+		}
+		if(cp < min || cp > Character.MAX_CODE_POINT || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE))
+			return -1;
+		return cp;
+	}
+
+	/**
+	 * @return The first character of the unexpected (possibly multi-byte) sequence at pos.
+	 */
+	private char unexpectedChar() throws IOException, ParseException {
+		int b0 = peek(0);
+		if(b0 < 0x80)
+			return (char)b0;
+		int cp = decode();
+		if(cp < 0)
+			return REPLACEMENT;
+		return Character.toChars(cp)[0];
+	}
+
+	/**
+	 * Skips the body of a string without decoding it, the opening quote and skippedLength bytes
+	 * have been consumed. Its decoded length is still checked against the maximum string length.
+	 * When fed input ends inside the string, pos is left after the skipped part.
+	 *
+	 * @return SKIPPED_STRING, or null if the input ends inside the string.
+	 */
+	private String skipString() throws IOException, ParseException {
+		/*
+		 * The bytes skipped less the extra ones of the escapes and of the multi-byte sequences,
+		 * which are counted on their first byte: a continuation byte counts -1, and the lead byte
+		 * of a four-byte sequence +1, as it becomes a surrogate pair.
+		 */
+		long length = skippedLength;
+		for(;;){
+			ByteBuffer b = buffer;
+			int p = pos;
+			int l = limit;
+			int start = p;
+			while(p < l){
+				int ch = b.get(p);
+				if(ch == '"'){
+					pos = p + 1;
+					checkStringLength(length + p - start);
+					return SKIPPED_STRING;
+				}
+				if(ch == '\\'){
+					if(p + 1 == l)
+						break;
+					length -= b.get(p + 1) == 'u' ? 5 : 1;
+					p += 2;
+				}
+				else{
+					if(ch < 0){
+						if((ch & 0xC0) == 0x80)
+							length--;
+						else if(ch >= (byte)0xF0 && ch <= (byte)0xF4)
+							length++;
+					}
+					p++;
+				}
+			}
+			length += p - start;
+			checkStringLength(length);
+			pos = p;
+			try{
+				if(!fill())
+					return null;
+			}
+			catch(NeedMoreInput e){
+				pos = p;
+				skippedLength = length;
+				throw e;
+			}
+		}
+	}
+
+	boolean skipContainer() throws IOException, ParseException {
+		int depth = 1;
+		for(;;){
+			ByteBuffer b = buffer;
+			int p = pos;
+			int l = limit;
+			while(p < l){
+				int ch = b.get(p++);
+				if(ch == '"'){
+					pos = p;
+					skippedLength = 0;
+					if(skipString() == null)
+						return false;
+					b = buffer;
+					p = pos;
+					l = limit;
+				}
+				else if(ch == '{' || ch == '['){
+					depth++;
+				}
+				else if(ch == '}' || ch == ']'){
+					if(--depth == 0){
+						pos = p;
+						return true;
+					}
+				}
+			}
+			pos = p;
+			if(!fill())
+				return false;
+		}
+	}
+
+	void seek(long position){
+		pos = (int)(position - offset);
+		mark = -1;
+	}
+
+	String text(int len){
+		char[] chars = new char[len];
+		for(int i = 0; i < len; i++)
+			chars[i] = (char)buffer.get(pos + i);
+		return new String(chars);
+	}
+}
@@ -0,0 +1,25 @@
+package org.json.simple;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JSON document written by JSONValue, JSONObject or JSONArray.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+@Name("org.json.simple.Serialize")
+@Label("JSON Serialize")
+@Category("JSON")
+@Description("A JSON document written by JSONValue, JSONObject or JSONArray")
+class SerializeEvent extends Event {
+	@Label("Output Size")
+	@Description("The length of the JSON text, in chars")
+	long outputSize;
+
+	@Label("Value Class")
+	Class<?> valueClass;
+}
@@ -0,0 +1,47 @@
+package org.json.simple;
+
+import jdk.jfr.EventType;
+
+/**
+ * Hooks for the org.json.simple.Serialize events of JDK Flight Recorder, on Java 11 and later.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class SerializeEvents {
+	/** null without the jdk.jfr module, like in a jlink image without it; then there are no events */
+	private static final EventType TYPE = eventType();
+
+	private SerializeEvents(){
+	}
+
+	private static EventType eventType(){
+		try{
+			return EventType.getEventType(SerializeEvent.class);
+		}
+		catch(LinkageError e){
+			return null;
+		}
+	}
+
+	static boolean isEnabled(){
+		return TYPE != null && TYPE.isEnabled();
+	}
+
+	static Object begin(){
+		if(TYPE == null || !TYPE.isEnabled())
+			return null;
+		SerializeEvent event = new SerializeEvent();
+		event.begin();
+		return event;
+	}
+
+	static void end(Object e, long length, Class type){
+		SerializeEvent event = (SerializeEvent)e;
+		event.end();
+		if(event.shouldCommit()){
+			event.outputSize = length;
+			event.valueClass = type;
+			event.commit();
+		}
+	}
+}
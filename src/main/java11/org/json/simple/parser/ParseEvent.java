@@ -0,0 +1,37 @@
+package org.json.simple.parser;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JSON document parsed by JSONParser.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+@Name("org.json.simple.Parse")
+@Label("JSON Parse")
+@Category("JSON")
+@Description("A JSON document parsed by JSONParser")
+class ParseEvent extends Event {
+	@Label("Input Size")
+	@Description("The length of the input, in chars, or in bytes for UTF-8 input")
+	long inputSize;
+
+	@Label("UTF-8")
+	@Description("Whether the input was UTF-8 encoded bytes")
+	boolean bytes;
+
+	@Label("Nodes")
+	@Description("The number of values, objects and arrays")
+	long nodeCount;
+
+	@Label("Max Depth")
+	int maxDepth;
+
+	@Label("Handler")
+	@Description("The ContainerFactory, ContentHandler or bound class")
+	Class<?> handler;
+}
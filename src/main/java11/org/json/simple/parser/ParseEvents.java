@@ -0,0 +1,46 @@
+package org.json.simple.parser;
+
+import jdk.jfr.EventType;
+
+/**
+ * Hooks for the org.json.simple.Parse events of JDK Flight Recorder, on Java 11 and later.
+ *
+ * @author FangYidong<fangyidong@yahoo.com.cn>
+ */
+final class ParseEvents {
+	/** null without the jdk.jfr module, like in a jlink image without it; then there are no events */
+	private static final EventType TYPE = eventType();
+
+	private ParseEvents(){
+	}
+
+	private static EventType eventType(){
+		try{
+			return EventType.getEventType(ParseEvent.class);
+		}
+		catch(LinkageError e){
+			return null;
+		}
+	}
+
+	static Object begin(){
+		if(TYPE == null || !TYPE.isEnabled())
+			return null;
+		ParseEvent event = new ParseEvent();
+		event.begin();
+		return event;
+	}
+
+	static void end(Object e, long length, boolean bytes, long nodes, int maxDepth, Class type){
+		ParseEvent event = (ParseEvent)e;
+		event.end();
+		if(event.shouldCommit()){
+			event.inputSize = length;
+			event.bytes = bytes;
+			event.nodeCount = nodes;
+			event.maxDepth = maxDepth;
+			event.handler = type;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package org.json.simple;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.json.simple.parser.JSONParser;
+
+import junit.framework.TestCase;
+
+/**
+ * Runs against the packaged multi-release jar, where the flight recorder events replace the no-op hooks.
+ */
+public class JSONEventsIT extends TestCase {
+
+	public void testEvents() throws Exception{
+		String text = "{\"a\":[1,{\"b\":true}],\"c\":null}";
+		Path file = Files.createTempFile("json-simple", ".jfr");
+		StringWriter out = new StringWriter();
+		try{
+			try(Recording recording = new Recording()){
+				recording.enable("org.json.simple.Parse");
+				recording.enable("org.json.simple.Serialize");
+				recording.start();
+				Object value = new JSONParser().parse(text);
+				JSONValue.writeJSONString(value, out);
+				recording.stop();
+				recording.dump(file);
+			}
+
+			List events = RecordingFile.readAllEvents(file);
+			RecordedEvent parse = find(events, "org.json.simple.Parse");
+			assertNotNull(parse);
+			assertEquals(text.length(), parse.getLong("inputSize"));
+			assertFalse(parse.getBoolean("bytes"));
+			// the two objects, the array, 1, true and null; keys are not nodes
+			assertEquals(6L, parse.getLong("nodeCount"));
+			assertEquals(3, parse.getInt("maxDepth"));
+
+			RecordedEvent serialize = find(events, "org.json.simple.Serialize");
+			assertNotNull(serialize);
+			assertEquals(out.toString().length(), serialize.getLong("outputSize"));
+			assertEquals(JSONObject.class.getName(), serialize.getClass("valueClass").getName());
+		}
+		finally{
+			Files.delete(file);
+		}
+	}
+
+	private static RecordedEvent find(List events, String name){
+		for(int i = 0; i < events.size(); i++){
+			RecordedEvent event = (RecordedEvent)events.get(i);
+			if(event.getEventType().getName().equals(name))
+				return event;
+		}
+		return null;
+	}
+}
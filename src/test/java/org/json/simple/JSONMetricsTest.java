@@ -0,0 +1,111 @@
+package org.json.simple;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.util.Map;
+
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import junit.framework.TestCase;
+
+public class JSONMetricsTest extends TestCase {
+
+	static class Recorder implements JSONMetricsListener {
+		long length;
+		boolean bytes;
+		int[] tokens;
+		int maxDepth;
+		int failed = -1;
+		long written;
+
+		public void parsed(long length, boolean bytes, int[] tokens, int maxDepth, long nanos){
+			this.length = length;
+			this.bytes = bytes;
+			this.tokens = (int[])tokens.clone();
+			this.maxDepth = maxDepth;
+		}
+
+		public void parseFailed(ParseException e, long nanos){
+			failed = e.getErrorType();
+		}
+
+		public void written(long length, long nanos){
+			written = length;
+		}
+	}
+
+	public void testMetrics() throws Exception {
+		assertTrue("run with -Dorg.json.simple.metrics=true", JSONMetrics.ENABLED);
+		JSONMetrics metrics = JSONMetrics.getInstance();
+		Recorder recorder = new Recorder();
+		JSONMetrics.addListener(recorder);
+		try{
+			metrics.reset();
+			JSONParser parser = new JSONParser();
+			String s = "{\"a\":[1,{\"b\":null}],\"c\":\"x\"}";
+			parser.parse(s);
+			assertEquals(s.length(), recorder.length);
+			assertFalse(recorder.bytes);
+			assertEquals(3, recorder.maxDepth);
+			assertEquals("[6, 2, 2, 1, 1, 2, 3]", java.util.Arrays.toString(recorder.tokens));
+
+			parser.parse(new ByteArrayInputStream("[\"é\"]".getBytes("UTF-8")));
+			assertEquals(6, recorder.length);
+			assertTrue(recorder.bytes);
+			assertEquals(1, recorder.maxDepth);
+
+			try{
+				parser.parse("[1,]]");
+				fail();
+			}
+			catch(ParseException pe){
+			}
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, recorder.failed);
+
+			StringWriter out = new StringWriter();
+			JSONValue.writeJSONString(parser.parse(s), out);
+			assertEquals(out.toString().length(), recorder.written);
+
+			assertEquals(3, metrics.getDocumentsParsed());
+			assertEquals(s.length() * 2, metrics.getCharsParsed());
+			assertEquals(6, metrics.getBytesParsed());
+			assertEquals(3, metrics.getMaxDepth());
+			assertEquals(1, metrics.getParseErrors());
+			Map errors = metrics.getParseErrorCounts();
+			assertEquals(Long.valueOf(1), errors.get("UNEXPECTED TOKEN"));
+			assertEquals(Long.valueOf(4), metrics.getTokenCounts().get("COMMA"));
+			assertEquals(1, metrics.getDocumentsWritten());
+			assertEquals(out.toString().length(), metrics.getCharsWritten());
+			long sum = 0;
+			long[] histogram = metrics.getParseLatencyHistogram();
+			for(int i = 0; i < histogram.length; i++)
+				sum += histogram[i];
+			assertEquals(3, sum);
+
+			// listeners get arrays of their own, and nobody else can report to the counters
+			recorder.tokens = null;
+			JSONMetricsListener spoiler = new Recorder(){
+				public void parsed(long length, boolean bytes, int[] tokens, int maxDepth, long nanos){
+					tokens[0] = -1;
+				}
+			};
+			JSONMetrics.addListener(spoiler);
+			parser.parse("[1]");
+			JSONMetrics.removeListener(spoiler);
+			assertTrue(recorder.tokens[0] >= 0);
+			try{
+				org.json.simple.parser.MetricsBridge.install(recorder);
+				fail();
+			}
+			catch(IllegalStateException e){
+			}
+
+			metrics.reset();
+			assertEquals(0, metrics.getDocumentsParsed());
+		}
+		finally{
+			JSONMetrics.removeListener(recorder);
+		}
+	}
+}
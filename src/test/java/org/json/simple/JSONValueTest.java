@@ -1,7 +1,11 @@
 package org.json.simple;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 import junit.framework.TestCase;
 
@@ -253,4 +257,239 @@ public class JSONValueTest extends TestCase {
 		JSONValue.writeJSONString(nestedStringArray, writer);
 		assertEquals(expectedNestedStringString, writer.toString());
 	}
+
+	public static class Point {
+		public int x;
+		public transient int ignored;
+		private String label;
+
+		public String getLabel(){
+			return label;
+		}
+
+		public boolean isOrigin(){
+			return x == 0;
+		}
+
+		public String toString(){
+			return "point";
+		}
+	}
+
+	public static class Node {
+		public Node next;
+		public Object value;
+	}
+
+	public static enum Shade {
+		DARK;
+
+		public String toString(){
+			return "dark";
+		}
+	}
+
+	public void testBeanToString() throws IOException {
+		Point point = new Point();
+		point.x = 1;
+		point.label = "a\"b";
+		assertEquals("point", JSONValue.toJSONString(point));
+		assertEquals("\"dark\"", JSONValue.toJSONString(Shade.DARK));
+
+		JSONValue.registerSerializer(Point.class, JSONBeans.SERIALIZER);
+		JSONValue.registerSerializer(Node.class, JSONBeans.SERIALIZER);
+		try{
+			assertEquals("{\"label\":\"a\\\"b\",\"origin\":false,\"x\":1}", JSONValue.toJSONString(point));
+
+			JSONArray array = new JSONArray();
+			array.add(point);
+			array.add(Thread.State.NEW);
+			assertEquals("[{\"label\":\"a\\\"b\",\"origin\":false,\"x\":1},\"NEW\"]", array.toJSONString());
+			assertEquals("{}", JSONValue.toJSONString(new JSONObject()));
+
+			Node node = new Node();
+			node.next = new Node();
+			node.value = point;
+			assertEquals("{\"next\":{\"next\":null,\"value\":null},\"value\":{\"label\":\"a\\\"b\",\"origin\":false,\"x\":1}}", JSONValue.toJSONString(node));
+			JSONArray cycle = new JSONArray();
+			cycle.add(node);
+			node.next.value = cycle;
+			try{
+				JSONValue.toJSONString(node);
+				fail();
+			}
+			catch(IllegalArgumentException e){
+			}
+			node.next.value = Shade.DARK;
+			assertEquals("{\"next\":{\"next\":null,\"value\":\"DARK\"},\"value\":{\"label\":\"a\\\"b\",\"origin\":false,\"x\":1}}", JSONValue.toJSONString(node));
+			assertEquals("[\"dark\"]", JSONValue.toJSONString(java.util.Collections.singletonList(Shade.DARK)));
+			JSONValue.registerSerializer(Enum.class, JSONBeans.SERIALIZER);
+			assertEquals("[\"DARK\"]", JSONValue.toJSONString(java.util.Collections.singletonList(Shade.DARK)));
+			node.next.value = point;
+			assertEquals("{\"next\":{\"next\":null,\"value\":{\"label\":\"a\\\"b\",\"origin\":false,\"x\":1}},\"value\":{\"label\":\"a\\\"b\",\"origin\":false,\"x\":1}}", JSONValue.toJSONString(node));
+		}
+		finally{
+			JSONValue.registerSerializer(Point.class, null);
+			JSONValue.registerSerializer(Node.class, null);
+			JSONValue.registerSerializer(Enum.class, null);
+		}
+	}
+
+	public void testEscape() throws IOException {
+		String clean = "plain text, \u00e9t\u00e9";
+		assertSame(clean, JSONValue.escape(clean));
+		assertEquals("a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u0000\\u001F\\u007F\\u0080\\u20AC\u2100",
+			JSONValue.escape("a\"b\\c/d\b\f\n\r\t\u0000\u001f\u007f\u0080\u20ac\u2100"));
+
+		StringBuffer all = new StringBuffer();
+		for(char ch = 0; ch < 0x2200; ch++)
+			all.append("ab").append(ch);
+		String s = all.toString();
+		String escaped = JSONValue.escape(s);
+		StringWriter writer = new StringWriter();
+		JSONValue.escape(s, writer);
+		assertEquals(escaped, writer.toString());
+		assertEquals(s, JSONValue.parse("\"" + escaped + "\""));
+		assertEquals("\"k\\n\":\"v\\t\"", JSONObject.toString("k\n", "v\t"));
+	}
+
+	public void testWriteUtf8() throws IOException {
+		JSONObject obj = new JSONObject();
+		obj.put("ascii", "plain");
+		obj.put("cl\u00e9", "\u00e9t\u00e9 \u4e2d\u6587 \ud83d\ude00 \ud800x");
+		obj.put("n", new Double(-1.5e-7));
+		obj.put("list", JSONValue.parse("[true,null,1]"));
+		StringBuffer sb = new StringBuffer();
+		for(int i = 0; i < 3000; i++)
+			sb.append("ab\u00e9\ud83d\ude00");
+		obj.put("long", sb.toString());
+		String text = obj.toJSONString();
+		byte[] expected = text.getBytes("UTF-8");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JSONValue.writeJSONString(obj, out);
+		assertEquals(new String(expected, "UTF-8"), new String(out.toByteArray(), "UTF-8"));
+		assertTrue(java.util.Arrays.equals(expected, out.toByteArray()));
+
+		ByteBuffer buffer = ByteBuffer.allocate(expected.length + 1);
+		JSONValue.writeJSONString(obj, buffer);
+		assertEquals(expected.length, buffer.position());
+		assertTrue(java.util.Arrays.equals(expected, java.util.Arrays.copyOf(buffer.array(), expected.length)));
+
+		try{
+			JSONValue.writeJSONString(obj, ByteBuffer.allocate(100));
+			fail();
+		}
+		catch(BufferOverflowException e){
+		}
+		out.reset();
+		JSONValue.writeJSONString("x", out);
+		assertEquals("\"x\"", out.toString("UTF-8"));
+	}
+
+	interface Shape {
+		double area();
+	}
+
+	static class Square implements Shape {
+		public double area(){
+			return 4;
+		}
+	}
+
+	public void testSerializerRegistry() throws IOException {
+		JSONSerializer asString = new JSONSerializer(){
+			public void writeJSONString(Object value, Writer out) throws IOException{
+				JSONValue.writeJSONString(value.toString(), out);
+			}
+		};
+		JSONSerializer area = new JSONSerializer(){
+			public void writeJSONString(Object value, Writer out) throws IOException{
+				out.write("{\"area\":");
+				JSONValue.writeJSONString(new Double(((Shape)value).area()), out);
+				out.write('}');
+			}
+		};
+		java.util.UUID uuid = new java.util.UUID(1, 2);
+		JSONArray array = new JSONArray();
+		array.add(uuid);
+		array.add(new java.math.BigDecimal("1.50"));
+		Square square = new Square();
+		array.add(square);
+		array.add(Thread.State.NEW);
+		array.add("s");
+		assertEquals("[" + uuid + ",1.50," + square + ",\"NEW\",\"s\"]", array.toJSONString());
+
+		JSONValue.registerSerializer(java.util.UUID.class, asString);
+		JSONValue.registerSerializer(Number.class, asString);
+		JSONValue.registerSerializer(Shape.class, area);
+		try{
+			assertEquals("[\"" + uuid + "\",\"1.50\",{\"area\":\"4.0\"},\"NEW\",\"s\"]", array.toJSONString());
+		}
+		finally{
+			JSONValue.registerSerializer(java.util.UUID.class, null);
+			JSONValue.registerSerializer(Number.class, null);
+			JSONValue.registerSerializer(Shape.class, null);
+		}
+		assertEquals("[" + uuid + ",1.50," + square + ",\"NEW\",\"s\"]", array.toJSONString());
+	}
+
+	public void testKeyFragments() throws IOException {
+		StringBuffer longKey = new StringBuffer();
+		for(int i = 0; i < 100; i++)
+			longKey.append('k');
+		java.util.Map map = new java.util.LinkedHashMap();
+		map.put("Aa", new Integer(1));
+		map.put("BB", new Integer(2));
+		map.put("a\"b/\u2028", new Integer(3));
+		map.put(longKey.toString(), new Integer(4));
+		map.put(null, new Integer(5));
+		String expected = "{\"Aa\":1,\"BB\":2,\"a\\\"b\\/\\u2028\":3,\"" + longKey + "\":4,\"null\":5}";
+		for(int i = 0; i < 3; i++){
+			assertEquals(expected, JSONValue.toJSONString(map));
+			assertEquals(JSONValue.parse(expected), JSONValue.parse(new JSONObject(map).toJSONString()));
+		}
+	}
+
+	public void testNumbers() throws IOException {
+		long[] longs = {0, 7, -7, 10, 99, -100, 123456789, Long.MAX_VALUE, Long.MIN_VALUE};
+		for(int i = 0; i < longs.length; i++){
+			assertEquals(Long.toString(longs[i]), JSONValue.toJSONString(new Long(longs[i])));
+			assertEquals(Integer.toString((int)longs[i]), JSONValue.toJSONString(new Integer((int)longs[i])));
+		}
+		assertEquals("-128", JSONValue.toJSONString(new Byte(Byte.MIN_VALUE)));
+		assertEquals("-32768", JSONValue.toJSONString(new Short(Short.MIN_VALUE)));
+
+		// the notation of Double.toString()
+		double[] doubles = {0.0, -0.0, 1.0, -1.5, 100.0, 0.001, 1.0E-4, 1.0E7, 9999999.0, 1.0E-5,
+				1.2345678901234568E17, Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE, 0.1, 1.0E23};
+		String[] texts = {"0.0", "-0.0", "1.0", "-1.5", "100.0", "0.001", "1.0E-4", "1.0E7", "9999999.0", "1.0E-5",
+				"1.2345678901234568E17", "4.9E-324", "2.2250738585072014E-308", "1.7976931348623157E308", "0.1", "1.0E23"};
+		for(int i = 0; i < doubles.length; i++)
+			assertEquals(texts[i], JSONValue.toJSONString(new Double(doubles[i])));
+		assertEquals("[1.0E-5,3.4028235E38,1.4E-45,0.3,3.4E10]", JSONArray.toJSONString(new float[]{1.0E-5f, Float.MAX_VALUE, Float.MIN_VALUE, 0.3f, 3.4E10f}));
+
+		// the shortest text that parses back to the same value
+		java.util.Random random = new java.util.Random(1);
+		for(int i = 0; i < 10000; i++){
+			double d = Double.longBitsToDouble(random.nextLong());
+			float f = Float.intBitsToFloat(random.nextInt());
+			if(!Double.isNaN(d) && !Double.isInfinite(d)){
+				String text = JSONValue.toJSONString(new Double(d));
+				assertEquals(d, Double.parseDouble(text), 0);
+				assertTrue(text.length() <= Double.toString(d).length());
+			}
+			if(!Float.isNaN(f) && !Float.isInfinite(f)){
+				String text = JSONValue.toJSONString(new Float(f));
+				assertEquals(f, Float.parseFloat(text), 0);
+				assertTrue(text.length() <= Float.toString(f).length());
+			}
+		}
+
+		assertEquals("null", JSONValue.toJSONString(new Double(Double.NaN)));
+		assertEquals("null", JSONValue.toJSONString(new Float(Float.NEGATIVE_INFINITY)));
+		assertEquals("[null,1.5,null]", JSONArray.toJSONString(new double[]{Double.NaN, 1.5, Double.POSITIVE_INFINITY}));
+		assertEquals("[null,-2.0]", JSONArray.toJSONString(new float[]{Float.NaN, -2f}));
+		assertEquals("[-9223372036854775808,0,42]", JSONArray.toJSONString(new long[]{Long.MIN_VALUE, 0, 42}));
+	}
 }
@@ -0,0 +1,24 @@
+package org.json.simple;
+
+import java.io.StringWriter;
+
+import org.json.simple.parser.JSONParser;
+
+import junit.framework.TestCase;
+
+/**
+ * Runs against the packaged multi-release jar on a runtime without the jdk.jfr module, see the
+ * without-recorder execution in pom.xml, where the release 11 classes must not record any events.
+ */
+public class JSONWithoutRecorderIT extends TestCase {
+
+	public void testParseAndWrite() throws Exception{
+		assertFalse(ModuleLayer.boot().findModule("jdk.jfr").isPresent());
+
+		String text = "{\"a\":[1,{\"b\":true}],\"c\":null}";
+		Object value = new JSONParser().parse(text);
+		StringWriter out = new StringWriter();
+		JSONValue.writeJSONString(value, out);
+		assertEquals(value, new JSONParser().parse(out.toString()));
+	}
+}
@@ -0,0 +1,141 @@
+package org.json.simple.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.simple.JSONValue;
+
+import junit.framework.TestCase;
+
+public class JSONFeedParserTest extends TestCase {
+
+	/**
+	 * Records the events, and stops the parsing after every primitive value if asked to.
+	 */
+	private static class Recorder implements ContentHandler {
+		final List events = new ArrayList();
+		boolean stopAtPrimitives = false;
+
+		public void startJSON() throws ParseException, IOException {
+			events.add("startJSON");
+		}
+		public void endJSON() throws ParseException, IOException {
+			events.add("endJSON");
+		}
+		public boolean startObject() throws ParseException, IOException {
+			events.add("{");
+			return true;
+		}
+		public boolean endObject() throws ParseException, IOException {
+			events.add("}");
+			return true;
+		}
+		public boolean startObjectEntry(String key) throws ParseException, IOException {
+			events.add(key + ":");
+			return true;
+		}
+		public boolean endObjectEntry() throws ParseException, IOException {
+			events.add(",");
+			return true;
+		}
+		public boolean startArray() throws ParseException, IOException {
+			events.add("[");
+			return true;
+		}
+		public boolean endArray() throws ParseException, IOException {
+			events.add("]");
+			return true;
+		}
+		public boolean primitive(Object value) throws ParseException, IOException {
+			events.add(value);
+			return !stopAtPrimitives;
+		}
+	}
+
+	public void testFeed() throws Exception {
+		String s = "{\"k\u00e9y\" : [\"caf\u00e9 \u4e2d \ud83d\ude00\", \"a\\u00e9\\n\", -12.5e-1, 123456, true, false, null, {}], \"last\":{\"x\":[[]]}}  ";
+		Recorder expected = new Recorder();
+		new JSONParser().parse(s, expected);
+
+		byte[] b = s.getBytes("UTF-8");
+		Recorder recorder = new Recorder();
+		JSONFeedParser parser = new JSONFeedParser(recorder);
+		for(int i = 0; i < b.length; i++)
+			assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.feed(ByteBuffer.wrap(b, i, 1)));
+		assertFalse(recorder.events.contains("endJSON"));
+		assertEquals(JSONFeedParser.END, parser.endOfInput());
+		assertEquals(expected.events, recorder.events);
+
+		recorder = new Recorder();
+		recorder.stopAtPrimitives = true;
+		parser = new JSONFeedParser(recorder);
+		int status = parser.feed(ByteBuffer.wrap(b, 0, 40));
+		int primitives = 0;
+		while(status == JSONFeedParser.SUSPENDED){
+			primitives++;
+			status = parser.resume();
+		}
+		assertEquals(JSONFeedParser.NEED_MORE_INPUT, status);
+		status = parser.feed(ByteBuffer.wrap(b, 40, b.length - 40));
+		while(status == JSONFeedParser.SUSPENDED){
+			primitives++;
+			status = parser.resume();
+		}
+		assertEquals(JSONFeedParser.NEED_MORE_INPUT, status);
+		assertEquals(JSONFeedParser.END, parser.endOfInput());
+		assertEquals(7, primitives);
+		assertEquals(expected.events, recorder.events);
+	}
+
+	public void testLongString() throws Exception {
+		// a string that ends with every fragment is continued where it ended, not scanned again
+		StringBuffer value = new StringBuffer();
+		while(value.length() < 1 << 20)
+			value.append("abc\u00e9\n\ud83d\ude00 ");
+		String s = "[" + JSONValue.toJSONString(value.toString()) + "]";
+		byte[] b = s.getBytes("UTF-8");
+		Recorder recorder = new Recorder();
+		JSONFeedParser parser = new JSONFeedParser(recorder);
+		for(int i = 0; i < b.length; i++){
+			assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.feed(ByteBuffer.wrap(b, i, 1)));
+			if(i == b.length / 2)
+				assertEquals(1, parser.getPosition());
+		}
+		assertEquals(JSONFeedParser.END, parser.endOfInput());
+		assertEquals(value.toString(), recorder.events.get(2));
+	}
+
+	public void testErrors() throws Exception {
+		JSONFeedParser parser = new JSONFeedParser(new JSONParserTest.ContentHandlerStub());
+		assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.feed(ByteBuffer.wrap("[1, \"ab".getBytes("UTF-8"))));
+		try{
+			parser.endOfInput();
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			assertEquals(7, pe.getPosition());
+		}
+
+		parser.reset();
+		try{
+			parser.feed(ByteBuffer.wrap("[1,\n  }".getBytes("UTF-8")));
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(6, pe.getPosition());
+		}
+
+		parser.reset();
+		assertEquals(JSONFeedParser.NEED_MORE_INPUT, parser.feed(ByteBuffer.wrap("12".getBytes("UTF-8"))));
+		assertEquals(JSONFeedParser.END, parser.endOfInput());
+		try{
+			parser.feed(ByteBuffer.wrap("3".getBytes("UTF-8")));
+			fail();
+		}
+		catch(IllegalStateException e){
+		}
+	}
+}
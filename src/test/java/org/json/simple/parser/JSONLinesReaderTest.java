@@ -0,0 +1,112 @@
+package org.json.simple.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import junit.framework.TestCase;
+
+public class JSONLinesReaderTest extends TestCase {
+
+	private static String records(int count){
+		StringBuffer sb = new StringBuffer();
+		for(int i = 0; i < count; i++){
+			sb.append("{\"id\":").append(i).append(",\"msg\":\"caf\u00e9 ");
+			for(int j = 0; j < i % 50; j++)
+				sb.append('x');
+			sb.append("\"}\r\n");
+			if(i % 7 == 0)
+				sb.append("  \n");
+		}
+		return sb.toString();
+	}
+
+	public void testRecords() throws Exception {
+		String s = records(2000);
+		JSONLinesReader reader = new JSONLinesReader(new StringReader(s));
+		int count = 0;
+		while(reader.hasNext()){
+			Map record = (Map)reader.next();
+			assertEquals(new Long(count), record.get("id"));
+			count++;
+		}
+		assertEquals(2000, count);
+		assertFalse(reader.hasNext());
+
+		List records = new JSONLinesReader(new ByteArrayInputStream(s.getBytes("UTF-8"))).stream().collect(Collectors.toList());
+		assertEquals(2000, records.size());
+		assertEquals(new JSONParser().parse(s.substring(0, s.indexOf('\n'))), records.get(0));
+		assertEquals(new Long(1999), ((Map)records.get(1999)).get("id"));
+
+		Iterator it = new JSONLinesReader(new StringReader("1\n\"a\"\nnull\n[true]")).iterator();
+		assertEquals(new Long(1), it.next());
+		assertEquals("a", it.next());
+		assertTrue(it.hasNext());
+		assertNull(it.next());
+		assertEquals(new JSONParser().parse("[true]"), it.next());
+		assertFalse(it.hasNext());
+	}
+
+	public void testErrors() throws Exception {
+		JSONLinesReader reader = new JSONLinesReader(new ByteArrayInputStream("{\"a\":1}\n\n{\"a\":}\n[2]\n".getBytes("UTF-8")));
+		reader.next();
+		try{
+			reader.next();
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(3, pe.getLineNumber());
+			assertEquals(5, pe.getPosition());
+			assertEquals("Unexpected token RIGHT BRACE(}) at position 5 of line 3.", pe.getMessage());
+		}
+		assertEquals(3, reader.getLineNumber());
+		assertEquals(new JSONParser().parse("[2]"), reader.next());
+		assertEquals(4, reader.getLineNumber());
+		assertFalse(reader.hasNext());
+	}
+
+	public void testLimits() throws Exception {
+		StringBuffer sb = new StringBuffer("[1]\n\"");
+		for(int i = 0; i < 100000; i++)
+			sb.append('x');
+		sb.append("\"\n[2]\n   ");
+		for(int i = 0; i < 100000; i++)
+			sb.append(' ');
+		sb.append("3");
+		String s = sb.toString();
+		ParserLimits limits = new ParserLimits();
+		limits.setMaxInputLength(64);
+
+		JSONLinesReader[] readers = {
+			new JSONLinesReader(new StringReader(s)),
+			new JSONLinesReader(new ByteArrayInputStream(s.getBytes("UTF-8")))
+		};
+		for(int i = 0; i < readers.length; i++){
+			JSONLinesReader reader = readers[i];
+			reader.getParser().setLimits(limits);
+			assertEquals(new JSONParser().parse("[1]"), reader.next());
+			try{
+				reader.next();
+				fail();
+			}
+			catch(ParseException pe){
+				assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+				assertEquals(2, pe.getLineNumber());
+			}
+			assertEquals(new JSONParser().parse("[2]"), reader.next());
+			assertTrue(reader.hasNext());
+			try{
+				reader.next();
+				fail();
+			}
+			catch(ParseException pe){
+				assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+				assertEquals(4, pe.getLineNumber());
+			}
+			assertFalse(reader.hasNext());
+		}
+	}
+}
@@ -0,0 +1,684 @@
+package org.json.simple.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.JSONNumber;
+
+import junit.framework.TestCase;
+
+public class JSONParserTest extends TestCase {
+
+	private static String nested(int depth){
+		StringBuffer sb = new StringBuffer();
+		for(int i = 0; i < depth; i++)
+			sb.append("{\"a\":[");
+		sb.append("1");
+		for(int i = 0; i < depth; i++)
+			sb.append("]}");
+		return sb.toString();
+	}
+
+	public void testDeepNesting() throws Exception {
+		JSONParser parser = new JSONParser();
+		String s = nested(500);
+		for(int round = 0; round < 2; round++){
+			Object obj = parser.parse(s);
+			for(int i = 0; i < 500; i++){
+				obj = ((List)((Map)obj).get("a")).get(0);
+			}
+			assertEquals(new Long(1), obj);
+		}
+	}
+
+	public void testResumeDeepNesting() throws Exception {
+		final int[] counts = new int[3];
+		ContentHandler handler = new ContentHandler(){
+			public void startJSON() throws ParseException, IOException {}
+			public void endJSON() throws ParseException, IOException {
+				counts[2]++;
+			}
+			public boolean startObject() throws ParseException, IOException {
+				counts[0]++;
+				return false;
+			}
+			public boolean endObject() throws ParseException, IOException {
+				counts[1]++;
+				return false;
+			}
+			public boolean startObjectEntry(String key) throws ParseException, IOException {
+				return true;
+			}
+			public boolean endObjectEntry() throws ParseException, IOException {
+				return true;
+			}
+			public boolean startArray() throws ParseException, IOException {
+				return true;
+			}
+			public boolean endArray() throws ParseException, IOException {
+				return true;
+			}
+			public boolean primitive(Object value) throws ParseException, IOException {
+				return true;
+			}
+		};
+
+		JSONParser parser = new JSONParser();
+		String s = nested(100);
+		while(counts[2] == 0)
+			parser.parse(s, handler, true);
+		assertEquals(100, counts[0]);
+		assertEquals(100, counts[1]);
+
+		try{
+			parser.parse("[[1]]]", handler);
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			assertEquals(5, pe.getPosition());
+		}
+	}
+
+	/**
+	 * Hands out at most one byte per read() call.
+	 */
+	private static InputStream trickle(byte[] b){
+		return new ByteArrayInputStream(b){
+			public synchronized int read(byte[] buf, int off, int len){
+				return super.read(buf, off, Math.min(len, 1));
+			}
+		};
+	}
+
+	public void testUtf8Input() throws Exception {
+		String s = "{\"k\u00e9y\":[\"caf\u00e9 \u4e2d \ud83d\ude00\",\"a\\tb\\u00e9\",-12,3.5e2,true,false,null],\"\u4e2d\":{}}";
+		byte[] b = s.getBytes("UTF-8");
+		JSONParser parser = new JSONParser();
+		Object expected = parser.parse(s);
+
+		assertEquals(expected, parser.parse(b, 0, b.length));
+		assertEquals(expected, parser.parse(new ByteArrayInputStream(b)));
+		assertEquals(expected, parser.parse(trickle(b)));
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(b.length + 2);
+		direct.put((byte)'x').put(b).put((byte)'x');
+		direct.position(1);
+		direct.limit(b.length + 1);
+		assertEquals(expected, parser.parse(direct));
+		assertEquals(1, direct.position());
+
+		byte[] padded = new byte[b.length + 4];
+		System.arraycopy(b, 0, padded, 2, b.length);
+		assertEquals(expected, parser.parse(padded, 2, b.length));
+		assertEquals(expected, org.json.simple.JSONValue.parseWithException(b));
+	}
+
+	public void testUtf8Errors() throws Exception {
+		JSONParser parser = new JSONParser();
+		byte[] b = new byte[]{'[', '"', 'a', (byte)0xC3, '"', ',', '"', (byte)0xFF, (byte)0xE4, (byte)0xB8, (byte)0xAD, '"', ']'};
+		List list = (List)parser.parse(b, 0, b.length);
+		assertEquals("a\ufffd", list.get(0));
+		assertEquals("\ufffd\u4e2d", list.get(1));
+
+		b = "[\"\u4e2d\", x]".getBytes("UTF-8");
+		try{
+			parser.parse(new ByteArrayInputStream(b));
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_CHAR, pe.getErrorType());
+			assertEquals(new Character('x'), pe.getUnexpectedObject());
+			assertEquals(8, pe.getPosition());
+		}
+
+		b = "[1,\u4e2d]".getBytes("UTF-8");
+		try{
+			parser.parse(b, 0, b.length);
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(new Character('\u4e2d'), pe.getUnexpectedObject());
+			assertEquals(3, pe.getPosition());
+		}
+	}
+
+	public void testMappedFile() throws Exception {
+		String s = "{\"first\": 123, \"second\": [\"a long string \u4e2d value\", -4.5e1, true, null], \"third\": {\"x\": \"y\"}}";
+		Path file = Files.createTempFile("json-simple", ".json");
+		try{
+			Files.write(file, s.getBytes("UTF-8"));
+			JSONParser parser = new JSONParser();
+			Object expected = parser.parse(s);
+			assertEquals(expected, parser.parse(file));
+
+			Utf8Lexer lexer = new Utf8Lexer();
+			lexer.mapWindowSize = 7;
+			Yylex reference = new Yylex(new java.io.StringReader(s));
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+			try{
+				lexer.yyreset(channel);
+				for(;;){
+					Yytoken expectedToken = reference.yylex();
+					Yytoken token = lexer.yylex();
+					assertEquals(expectedToken.type, token.type);
+					assertEquals(expectedToken.value, token.value);
+					if(token.type == Yytoken.TYPE_EOF)
+						break;
+				}
+				assertEquals(s.getBytes("UTF-8").length, lexer.getPosition());
+			}
+			finally{
+				channel.close();
+			}
+
+			final long[] position = new long[1];
+			parser.parse(file, new ContentHandlerStub(){
+				public boolean primitive(Object value) throws ParseException, IOException {
+					if(Boolean.TRUE.equals(value))
+						position[0] = 1;
+					return true;
+				}
+			});
+			assertEquals(1, position[0]);
+		}
+		finally{
+			Files.delete(file);
+		}
+	}
+
+	static class ContentHandlerStub implements ContentHandler {
+		public void startJSON() throws ParseException, IOException {}
+		public void endJSON() throws ParseException, IOException {}
+		public boolean startObject() throws ParseException, IOException {
+			return true;
+		}
+		public boolean endObject() throws ParseException, IOException {
+			return true;
+		}
+		public boolean startObjectEntry(String key) throws ParseException, IOException {
+			return true;
+		}
+		public boolean endObjectEntry() throws ParseException, IOException {
+			return true;
+		}
+		public boolean startArray() throws ParseException, IOException {
+			return true;
+		}
+		public boolean endArray() throws ParseException, IOException {
+			return true;
+		}
+		public boolean primitive(Object value) throws ParseException, IOException {
+			return true;
+		}
+	}
+
+	public void testLazy() throws Exception {
+		String s = "{\"header\":{\"type\":\"order\",\"tenant\":\"t\\u00e9\"},\"items\":[1,2.5,{\"k\":[]},\"x\",null],\"dup\":1,\"dup\":2,\"flag\":true}";
+		JSONParser parser = new JSONParser();
+		Map expected = (Map)parser.parse(s);
+
+		Map lazy = (Map)parser.parseLazy(s);
+		assertEquals("order", ((Map)lazy.get("header")).get("type"));
+		assertEquals(new Long(2), lazy.get("dup"));
+		assertEquals(4, lazy.size());
+		assertEquals(expected, lazy);
+		assertEquals(lazy, expected);
+		assertEquals(expected, parser.parse(lazy.toString()));
+
+		byte[] b = s.getBytes("UTF-8");
+		List items = (List)((Map)parser.parseLazy(b, 0, b.length)).get("items");
+		assertEquals(5, items.size());
+		assertEquals(new Double(2.5), items.get(1));
+		assertEquals(expected.get("items"), items);
+
+		lazy.put("added", "v");
+		lazy.put("flag", Boolean.FALSE);
+		assertEquals("v", lazy.get("added"));
+		assertEquals(Boolean.FALSE, lazy.get("flag"));
+		assertEquals(new Long(2), lazy.remove("dup"));
+		assertFalse(lazy.containsKey("dup"));
+		assertEquals(4, lazy.size());
+
+		items.add("y");
+		assertEquals(6, items.size());
+		assertEquals("y", items.get(5));
+
+		Map views = (Map)parser.parseLazy("{\"a\":1,\"b\":2,\"c\":3,\"d\":4,\"e\":[5]}");
+		java.util.Iterator it = views.entrySet().iterator();
+		assertEquals("a", ((Map.Entry)it.next()).getKey());
+		it.remove();
+		Map.Entry entry = (Map.Entry)it.next();
+		assertEquals(new Long(2), entry.setValue("two"));
+		assertTrue(views.keySet().remove("c"));
+		assertTrue(views.values().remove(new Long(4)));
+		assertTrue(views.entrySet().removeIf(e -> ((Map.Entry)e).getValue() instanceof List));
+		assertEquals(parser.parse("{\"b\":\"two\"}"), views);
+
+		assertEquals("abc", parser.parseLazy(" \"abc\" "));
+		try{
+			parser.parseLazy("{\"a\":[1,2}");
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			assertEquals(9, pe.getPosition());
+		}
+	}
+
+	public void testExtract() throws Exception {
+		String s = "{\"skip\":{\"a\":[\"}]\\\"\",{\"b\":1}]},\"header\":{\"type\":\"order\",\"a/b\":null,\"id\":7},"
+			+ "\"items\":[10,{\"x\":[1,2]},[3]],\"rest\":true}";
+		JSONParser parser = new JSONParser();
+		Map result = parser.extract(s, "/header/type", "/header/a~1b", "/items/1/x/1", "/items/2", "/missing", "/items/9");
+		assertEquals(4, result.size());
+		assertEquals("order", result.get("/header/type"));
+		assertTrue(result.containsKey("/header/a~1b"));
+		assertNull(result.get("/header/a~1b"));
+		assertEquals(new Long(2), result.get("/items/1/x/1"));
+		assertEquals(parser.parse("[3]"), result.get("/items/2"));
+		assertFalse(result.containsKey("/missing"));
+		assertEquals(new Long(7), parser.extract(s.substring(0, 100) + " not even json", "/header/id").get("/header/id"));
+
+		result = parser.extract(new ByteArrayInputStream("[{\"k\":1},{\"k\":2}]".getBytes("UTF-8")), "/1", "/1/k", "");
+		assertEquals(parser.parse("{\"k\":2}"), result.get("/1"));
+		assertEquals(new Long(2), result.get("/1/k"));
+		assertEquals(parser.parse("[{\"k\":1},{\"k\":2}]"), result.get(""));
+
+		try{
+			parser.extract("{\"a\":[1,}", "/a/0", "/b");
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+		}
+		try{
+			parser.extract("{}", "a");
+			fail();
+		}
+		catch(IllegalArgumentException e){
+		}
+	}
+
+	private static String firstKey(Object obj){
+		return (String)((Map)obj).keySet().iterator().next();
+	}
+
+	public void testKeyCache() throws Exception {
+		String s = "[{\"name\":\"name\"},{\"name\":1},{\"na\\u006de\":2}]";
+		JSONParser parser = new JSONParser();
+		List list = (List)parser.parse(s);
+		assertSame(firstKey(list.get(0)), firstKey(list.get(1)));
+		assertSame(firstKey(list.get(0)), firstKey(list.get(2)));
+		assertNotSame(firstKey(list.get(0)), ((Map)list.get(0)).get("name"));
+
+		byte[] b = s.getBytes("UTF-8");
+		list = (List)parser.parse(b, 0, b.length);
+		assertSame(firstKey(list.get(0)), firstKey(list.get(2)));
+
+		KeyCache shared = new KeyCache(1, 4);
+		parser.setKeyCache(shared);
+		JSONParser other = new JSONParser();
+		other.setKeyCache(shared);
+		assertSame(firstKey(parser.parse("{\"id\":1}")), firstKey(other.parse("{\"id\":2}")));
+		assertNotSame(firstKey(parser.parse("{\"long key\":1}")), firstKey(other.parse("{\"long key\":1}")));
+
+		parser.setKeyCache(null);
+		list = (List)parser.parse(s);
+		assertNotSame(firstKey(list.get(0)), firstKey(list.get(1)));
+		assertEquals(firstKey(list.get(0)), firstKey(list.get(1)));
+	}
+
+	public void testNumbers() throws Exception {
+		String[] doubles = {"0.1", "-0.0", "1.5e3", "2E-5", "-123.456", "9007199254740993.0", "0.30000000000000004",
+			"1e22", "1e23", "4.9e-324", "1.7976931348623157e308", "1e400", "123456789012345678901234.5", "5e-99999999999"};
+		JSONParser parser = new JSONParser();
+		for(int i = 0; i < doubles.length; i++){
+			byte[] b = doubles[i].getBytes("UTF-8");
+			assertEquals(doubles[i], Double.valueOf(doubles[i]), parser.parse(doubles[i]));
+			assertEquals(doubles[i], Double.valueOf(doubles[i]), parser.parse(b, 0, b.length));
+		}
+
+		String s = "[9223372036854775807,-9223372036854775808,9223372036854775808,-0,12.50,-1e-3,1e99999999999]";
+		List list = (List)parser.parse(s);
+		assertEquals(new Long(Long.MAX_VALUE), list.get(0));
+		assertEquals(new Long(Long.MIN_VALUE), list.get(1));
+		assertEquals(new BigInteger("9223372036854775808"), list.get(2));
+		assertEquals(new Long(0), list.get(3));
+		assertEquals(new Double(Double.POSITIVE_INFINITY), list.get(6));
+
+		parser.setNumericMode(JSONParser.NUMBER_BIG_DECIMAL);
+		list = (List)parser.parse(s.substring(0, s.lastIndexOf(',')) + "]");
+		assertEquals(BigInteger.valueOf(Long.MAX_VALUE), list.get(0));
+		assertEquals(new BigInteger("9223372036854775808"), list.get(2));
+		assertEquals(new BigDecimal("12.50"), list.get(4));
+		assertEquals(new BigDecimal("-1e-3"), list.get(5));
+
+		parser.setNumericMode(JSONParser.NUMBER_LAZY);
+		byte[] b = s.getBytes("UTF-8");
+		list = (List)parser.parse(b, 0, b.length);
+		assertEquals(new JSONNumber("12.50"), list.get(4));
+		assertEquals(12.5, ((Number)list.get(4)).doubleValue(), 0);
+		assertEquals(Long.MIN_VALUE, ((Number)list.get(1)).longValue());
+		assertEquals(s, org.json.simple.JSONValue.toJSONString(list));
+	}
+
+	public void testParserFactory() throws Exception {
+		JSONParserFactory factory = new JSONParserFactory(16, 64);
+		JSONParser parser = factory.acquire();
+		JSONParser nested = factory.acquire();
+		assertNotSame(parser, nested);
+		factory.release(nested);
+		factory.release(parser);
+		assertSame(nested, factory.acquire());
+		assertNotSame(nested, factory.acquire());
+
+		String big = nested(100);
+		Object expected = parser.parse(big);
+		for(int round = 0; round < 2; round++){
+			parser = factory.acquire();
+			parser.setNumericMode(JSONParser.NUMBER_LAZY);
+			assertEquals(expected.toString(), parser.parse(new java.io.StringReader(big)).toString());
+			byte[] b = big.getBytes("UTF-8");
+			assertEquals(expected.toString(), parser.parse(new ByteArrayInputStream(b)).toString());
+			factory.release(parser);
+			assertSame(parser, factory.acquire());
+			assertEquals(new Long(1), ((List)parser.parse(new java.io.StringReader("[1]"))).get(0));
+			factory.release(parser);
+		}
+
+		assertEquals(expected, org.json.simple.JSONValue.parseWithException(big));
+		assertEquals(expected, org.json.simple.JSONValue.parse(new java.io.StringReader(big)));
+		assertNull(org.json.simple.JSONValue.parse("[1,"));
+	}
+
+	public void testParseNext() throws Exception {
+		String text = "{\"a\":1}{\"b\":[2]} 3 \"x\"\"y\"\n[]true null 12.5 ";
+		String expected = "[{\"a\":1}, {\"b\":[2]}, 3, x, y, [], true, null, 12.5]";
+		JSONParser parser = new JSONParser(4);
+		parser.reset(new java.io.StringReader(text));
+		List values = new java.util.ArrayList();
+		while(parser.hasNext())
+			values.add(parser.parseNext());
+		assertEquals(expected, values.toString());
+		assertFalse(parser.hasNext());
+
+		parser.reset(new ByteArrayInputStream(text.getBytes("UTF-8")));
+		values.clear();
+		for(java.util.Iterator it = parser.iterator(null); it.hasNext(); )
+			values.add(it.next());
+		assertEquals(expected, values.toString());
+
+		parser.reset(new java.io.StringReader("[1] [2} [3]"));
+		assertEquals("[1]", parser.parseNext().toString());
+		try{
+			parser.parseNext();
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			assertEquals(6, pe.getPosition());
+		}
+
+		parser.reset(new java.io.StringReader(" "));
+		try{
+			parser.parseNext();
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+		}
+	}
+
+	public void testProjection() throws Exception {
+		String text = "{\"id\":1,\"debug\":{\"trace\":[\"a\",{\"b\":2}],\"x\":\"\\u0041\"},"
+			+ "\"items\":[{\"name\":\"n1\",\"price\":3,\"debug\":[1]},{\"name\":\"n2\",\"tags\":{\"t\":true}}],"
+			+ "\"meta\":{\"type\":\"t\",\"size\":5}}";
+		JSONParser parser = new JSONParser();
+
+		Object excluded = parser.parse(new java.io.StringReader(text), null, Projection.exclude("/debug", "/items/debug", "/meta/size"));
+		assertEquals("{\"meta\":{\"type\":\"t\"},\"id\":1,\"items\":[{\"price\":3,\"name\":\"n1\"},{\"name\":\"n2\",\"tags\":{\"t\":true}}]}",
+			excluded.toString());
+
+		Object included = parser.parse(new ByteArrayInputStream(text.getBytes("UTF-8")), null, Projection.include("/items/name", "/meta"));
+		assertEquals("{\"meta\":{\"size\":5,\"type\":\"t\"},\"items\":[{\"name\":\"n1\"},{\"name\":\"n2\"}]}",
+			included.toString());
+
+		Object all = parser.parse(new java.io.StringReader(text), null, null);
+		assertEquals(parser.parse(text), all);
+
+		Projection keys = new Projection(){
+			public boolean includes(String[] path, int depth){
+				return !path[depth - 1].startsWith("d");
+			}
+		};
+		assertEquals("{\"x\":2}", parser.parse(new java.io.StringReader("{\"d\":[1,[2]],\"x\":2,\"dd\":{}}"), null, keys).toString());
+
+		try{
+			parser.parse(new java.io.StringReader("{\"d\":[1,2}"), null, keys);
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+		}
+		assertEquals("{\"d\":\"v\"}", parser.parse("{\"d\":\"v\"}").toString());
+	}
+
+	public enum Status { NEW, DONE }
+
+	public static class Item {
+		public String name;
+		public Integer count;
+		public boolean gift;
+	}
+
+	public static class Order {
+		public String id;
+		private int quantity;
+		public double price;
+		public float weight;
+		public long[] codes;
+		public List<Item> items;
+		public Map<String, Long> attributes;
+		public java.util.Set<String> tags;
+		public Status status;
+		public BigDecimal total;
+		public char grade;
+		public Object extra;
+
+		public int getQuantity(){
+			return quantity;
+		}
+
+		public void setQuantity(int quantity){
+			this.quantity = quantity;
+		}
+	}
+
+	public void testBind() throws Exception {
+		String text = "{\"id\":\"o-1\",\"quantity\":3,\"price\":9.5,\"weight\":0.25,\"codes\":[1,-2,9007199254740993],"
+			+ "\"items\":[{\"name\":\"a\",\"count\":2,\"gift\":true},{\"name\":\"b\",\"count\":null,\"unknown\":[{\"x\":1}]}],"
+			+ "\"attributes\":{\"k\":7},\"tags\":[\"t\",\"t\",\"u\"],\"status\":\"DONE\",\"total\":0.1000000000000000055,"
+			+ "\"grade\":\"A\",\"extra\":{\"e\":[1,\"2\"]},\"debug\":{\"big\":\"ignored\"}}";
+		JSONParser parser = new JSONParser();
+		Order order = parser.parse(text, Order.class);
+		assertEquals("o-1", order.id);
+		assertEquals(3, order.getQuantity());
+		assertEquals(9.5, order.price, 0);
+		assertEquals(0.25f, order.weight, 0);
+		assertTrue(java.util.Arrays.equals(new long[]{1, -2, 9007199254740993L}, order.codes));
+		assertEquals(2, order.items.size());
+		assertEquals("a", order.items.get(0).name);
+		assertEquals(Integer.valueOf(2), order.items.get(0).count);
+		assertTrue(order.items.get(0).gift);
+		assertNull(order.items.get(1).count);
+		assertEquals(Long.valueOf(7), order.attributes.get("k"));
+		assertEquals(2, order.tags.size());
+		assertEquals(Status.DONE, order.status);
+		assertEquals(new BigDecimal("0.1000000000000000055"), order.total);
+		assertEquals('A', order.grade);
+		assertEquals(parser.parse("{\"e\":[1,\"2\"]}"), order.extra);
+
+		org.json.simple.JSONValue.registerSerializer(Order.class, org.json.simple.JSONBeans.SERIALIZER);
+		org.json.simple.JSONValue.registerSerializer(Item.class, org.json.simple.JSONBeans.SERIALIZER);
+		try{
+			Order copy = parser.parse(new ByteArrayInputStream(org.json.simple.JSONValue.toJSONString(order).getBytes("UTF-8")), Order.class);
+			assertEquals(org.json.simple.JSONValue.toJSONString(order), org.json.simple.JSONValue.toJSONString(copy));
+			assertEquals("DONE", ((Map)parser.parse(org.json.simple.JSONValue.toJSONString(order))).get("status"));
+		}
+		finally{
+			org.json.simple.JSONValue.registerSerializer(Order.class, null);
+			org.json.simple.JSONValue.registerSerializer(Item.class, null);
+		}
+
+		assertEquals(Long.valueOf(5), parser.parse("5", Long.class));
+		assertNull(parser.parse("null", Order.class));
+		assertEquals("[1, 2]", java.util.Arrays.toString(parser.parse("[1,2]", int[].class)));
+
+		String[] invalid = {"{\"quantity\":\"3\"}", "{\"quantity\":null}", "{\"status\":\"LOST\"}", "{\"items\":{}}", "{\"id\":\"x\"} 1"};
+		for(int i = 0; i < invalid.length; i++){
+			try{
+				parser.parse(invalid[i], Order.class);
+				fail(invalid[i]);
+			}
+			catch(ParseException pe){
+				assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			}
+		}
+
+		String[] narrowing = {"{\"quantity\":3000000000}", "{\"quantity\":1.9}", "{\"codes\":[12345678901234567890]}",
+			"{\"codes\":[1e19]}", "{\"weight\":1e39}", "{\"price\":1e400}", "{\"items\":[{\"count\":-2147483649}]}"};
+		for(int i = 0; i < narrowing.length; i++){
+			try{
+				parser.parse(narrowing[i], Order.class);
+				fail(narrowing[i]);
+			}
+			catch(ParseException pe){
+				assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			}
+		}
+		try{
+			parser.parse("[1.9]", Short[].class);
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+		}
+		assertEquals("[-128, 127]", java.util.Arrays.toString(parser.parse("[-128,1.27e2]", byte[].class)));
+		assertEquals(300, parser.parse("{\"quantity\":3.0e2}", Order.class).getQuantity());
+		assertEquals(Long.MIN_VALUE, parser.parse("[-9223372036854775808]", long[].class)[0]);
+		assertEquals(new Long(1), ((List)parser.parse("[1]")).get(0));
+	}
+
+	private static void assertLimit(JSONParser parser, String text, long position) throws Exception {
+		try{
+			parser.parse(text);
+			fail(text);
+		}
+		catch(ParseException pe){
+			assertEquals(text, ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+			assertEquals(text, position, pe.getPosition());
+		}
+		try{
+			parser.parse(new ByteArrayInputStream(text.getBytes("UTF-8")));
+			fail(text);
+		}
+		catch(ParseException pe){
+			assertEquals(text, ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+			assertEquals(text, position, pe.getPosition());
+		}
+	}
+
+	public void testLimits() throws Exception {
+		ParserLimits limits = new ParserLimits();
+		limits.setMaxDepth(3);
+		limits.setMaxInputLength(40);
+		limits.setMaxStringLength(4);
+		limits.setMaxNumberLength(5);
+		limits.setMaxObjectMembers(2);
+		limits.setMaxArrayLength(3);
+		JSONParser parser = new JSONParser();
+		parser.setLimits(limits);
+		assertSame(limits, parser.getLimits());
+
+		assertEquals("[[{\"abcd\":-1.25}],[1,2,3]]", parser.parse("[[{\"abcd\":-1.25}],[1,2,3]]").toString());
+		assertLimit(parser, "[[{\"a\":[1]}]]", 7);
+		assertLimit(parser, "[\"abcde\"]", 1);
+		assertLimit(parser, "{\"abcde\":1}", 1);
+		assertLimit(parser, "[123456]", 1);
+		assertLimit(parser, "[1.5e100]", 1);
+		assertLimit(parser, "{\"a\":1,\"b\":2,\"c\":3}", 17);
+		assertLimit(parser, "[1,2,3,4]", 7);
+		assertLimit(parser, "[1,2,3]                                   ", 40);
+
+		try{
+			parser.parse("[[[[1]]]]", new ContentHandler(){
+				public void startJSON(){}
+				public void endJSON(){}
+				public boolean startObject(){ return true; }
+				public boolean endObject(){ return true; }
+				public boolean startObjectEntry(String key){ return true; }
+				public boolean endObjectEntry(){ return true; }
+				public boolean startArray(){ return true; }
+				public boolean endArray(){ return true; }
+				public boolean primitive(Object value){ return true; }
+			});
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+			assertEquals(3, pe.getPosition());
+		}
+		try{
+			parser.parse("[[[[1]]]]", List.class);
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+			assertEquals(3, pe.getPosition());
+		}
+
+		// skipped strings, with escapes and a surrogate pair counted as decoded
+		String[] lazy = {"{\"a\":\"abcde\"}", "[\"\\u00e9\\n\u00e9\ud83d\ude00\"]", "{\"abcde\":1}"};
+		String[] fit = {"{\"a\":\"abcd\"}", "[\"\\u00e9\\n\ud83d\ude00\"]", "{\"abcd\":1}"};
+		for(int i = 0; i < lazy.length; i++){
+			byte[] b = lazy[i].getBytes("UTF-8");
+			try{
+				parser.parseLazy(lazy[i]);
+				fail(lazy[i]);
+			}
+			catch(ParseException pe){
+				assertEquals(lazy[i], ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+			}
+			try{
+				parser.parseLazy(b, 0, b.length);
+				fail(lazy[i]);
+			}
+			catch(ParseException pe){
+				assertEquals(lazy[i], ParseException.ERROR_LIMIT_EXCEEDED, pe.getErrorType());
+			}
+			b = fit[i].getBytes("UTF-8");
+			assertEquals(parser.parse(fit[i]), parser.parseLazy(fit[i]));
+			assertEquals(parser.parse(fit[i]), parser.parseLazy(b, 0, b.length));
+		}
+
+		parser.setLimits(null);
+		assertEquals(4, ((List)parser.parse("[1,2,3,4]")).size());
+		try{
+			limits.setMaxDepth(0);
+			fail();
+		}
+		catch(IllegalArgumentException e){
+		}
+	}
+}
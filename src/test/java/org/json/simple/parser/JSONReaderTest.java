@@ -0,0 +1,104 @@
+package org.json.simple.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+public class JSONReaderTest extends TestCase {
+
+	public void testTokens() throws Exception {
+		String s = "{\"id\":12345678901,\"price\":-1.25e2,\"name\":\"a\\tb\",\"skip\":{\"x\":[1,{\"y\":\"]}\"}]},"
+			+ "\"list\":[true,false,null,[]],\"big\":123456789012345678901234567890,\"last\":{}}";
+		JSONReader[] readers = {new JSONReader(s), new JSONReader(new StringReader(s)),
+			new JSONReader(new ByteArrayInputStream(s.getBytes("UTF-8")))};
+		for(int i = 0; i < readers.length; i++){
+			JSONReader reader = readers[i];
+			assertEquals(JSONReader.START_OBJECT, reader.nextToken());
+			assertNull(reader.currentName());
+			assertEquals(JSONReader.NAME, reader.nextToken());
+			assertEquals("id", reader.currentName());
+			assertEquals(JSONReader.INTEGER, reader.nextToken());
+			assertEquals("id", reader.currentName());
+			assertEquals(12345678901L, reader.longValue());
+			assertEquals(JSONReader.NAME, reader.nextToken());
+			assertEquals(JSONReader.DECIMAL, reader.nextToken());
+			assertEquals(-125.0, reader.doubleValue(), 0);
+			assertEquals(-125, reader.longValue());
+			assertEquals(JSONReader.NAME, reader.nextToken());
+			assertEquals(JSONReader.STRING, reader.nextToken());
+			assertEquals("a\tb", reader.stringValue());
+			assertEquals(JSONReader.NAME, reader.nextToken());
+			assertEquals(JSONReader.START_OBJECT, reader.nextToken());
+			assertEquals("skip", reader.currentName());
+			reader.skipChildren();
+			assertEquals(JSONReader.END_OBJECT, reader.currentToken());
+			assertEquals("skip", reader.currentName());
+			assertEquals(JSONReader.NAME, reader.nextToken());
+			assertEquals(JSONReader.START_ARRAY, reader.nextToken());
+			assertEquals(JSONReader.TRUE, reader.nextToken());
+			assertNull(reader.currentName());
+			assertTrue(reader.booleanValue());
+			assertEquals(JSONReader.FALSE, reader.nextToken());
+			assertEquals(JSONReader.NULL, reader.nextToken());
+			assertEquals(JSONReader.START_ARRAY, reader.nextToken());
+			assertEquals(JSONReader.END_ARRAY, reader.nextToken());
+			assertEquals(JSONReader.END_ARRAY, reader.nextToken());
+			assertEquals("list", reader.currentName());
+			assertEquals(JSONReader.NAME, reader.nextToken());
+			assertEquals(JSONReader.INTEGER, reader.nextToken());
+			assertEquals(1.2345678901234568e29, reader.doubleValue(), 0);
+			assertEquals(JSONReader.NAME, reader.nextToken());
+			assertEquals(JSONReader.START_OBJECT, reader.nextToken());
+			assertEquals(JSONReader.END_OBJECT, reader.nextToken());
+			assertEquals(JSONReader.END_OBJECT, reader.nextToken());
+			assertEquals(JSONReader.END_OF_INPUT, reader.nextToken());
+			try{
+				reader.stringValue();
+				fail();
+			}
+			catch(IllegalStateException e){
+			}
+		}
+	}
+
+	public void testErrors() throws Exception {
+		JSONReader reader = new JSONReader("{\"a\":1 2 \"b\":[}");
+		assertEquals(JSONReader.START_OBJECT, reader.nextToken());
+		assertEquals(JSONReader.NAME, reader.nextToken());
+		assertEquals(JSONReader.INTEGER, reader.nextToken());
+		try{
+			reader.nextToken();
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			assertEquals(7, pe.getPosition());
+			assertEquals("VALUE(2)", pe.getUnexpectedObject().toString());
+		}
+
+		reader = new JSONReader("[1] 2");
+		assertEquals(JSONReader.START_ARRAY, reader.nextToken());
+		assertEquals(JSONReader.INTEGER, reader.nextToken());
+		assertEquals(JSONReader.END_ARRAY, reader.nextToken());
+		try{
+			reader.nextToken();
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(4, pe.getPosition());
+		}
+
+		reader = new JSONReader("[[1,2]");
+		reader.nextToken();
+		reader.nextToken();
+		reader.skipChildren();
+		try{
+			reader.nextToken();
+			fail();
+		}
+		catch(ParseException pe){
+			assertEquals(6, pe.getPosition());
+		}
+	}
+}
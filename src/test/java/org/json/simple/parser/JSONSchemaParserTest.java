@@ -0,0 +1,116 @@
+package org.json.simple.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class JSONSchemaParserTest extends TestCase {
+
+	private static JSONSchema orderSchema(){
+		JSONSchema customer = new JSONSchema()
+			.add("name", JSONSchema.STRING)
+			.add("vip", JSONSchema.BOOLEAN);
+		return new JSONSchema()
+			.add("id", JSONSchema.LONG)
+			.add("price", JSONSchema.DOUBLE)
+			.add("customer", customer)
+			.add("tags", JSONSchema.VALUE)
+			.add("note", JSONSchema.STRING);
+	}
+
+	public void testRecord() throws Exception {
+		JSONSchema order = orderSchema();
+		JSONSchemaParser parser = new JSONSchemaParser(order);
+		String text = "{\"id\":42,\"debug\":{\"trace\":[1,2,\"x\"]},\"pri\\u0063e\":9.5,"
+			+ "\"customer\":{\"name\":\"Ann\",\"vip\":true,\"age\":3},\"tags\":[\"a\",{\"b\":1}],\"note\":null}";
+		JSONRecord record = parser.parse(text);
+		assertEquals(42, record.getLong(order.indexOf("id")));
+		assertEquals(9.5, record.getDouble(order.indexOf("price")), 0);
+		JSONRecord customer = record.getRecord(order.indexOf("customer"));
+		assertEquals("Ann", customer.getString(0));
+		assertTrue(customer.getBoolean(1));
+		assertEquals("[\"a\",{\"b\":1}]", ((List)record.get("tags")).toString());
+		assertFalse(record.has(order.indexOf("note")));
+		assertEquals("{\"id\":42,\"price\":9.5,\"customer\":{\"name\":\"Ann\",\"vip\":true},\"tags\":[\"a\",{\"b\":1}]}", record.toJSONString());
+
+		parser.parse(new ByteArrayInputStream("{\"customer\":{\"name\":\"Bob\"},\"id\":-1}".getBytes("UTF-8")), record);
+		assertSame(customer, record.getRecord(order.indexOf("customer")));
+		assertFalse(customer.has(1));
+		assertFalse(record.has(order.indexOf("price")));
+		assertEquals("{\"id\":-1,\"customer\":{\"name\":\"Bob\"}}", record.toString());
+
+		byte[] b = " {\"id\":7} ".getBytes("UTF-8");
+		parser.parse(b, 0, b.length, record);
+		assertEquals(7, record.getLong(0));
+
+		try{
+			record.getString(0);
+			fail();
+		}
+		catch(IllegalArgumentException e){
+		}
+		try{
+			parser.parse(new StringReader("{}"), new JSONSchema().newRecord());
+			fail();
+		}
+		catch(IllegalArgumentException e){
+		}
+		try{
+			order.add("other", JSONSchema.STRING);
+			fail();
+		}
+		catch(IllegalStateException e){
+		}
+	}
+
+	public void testContainer() throws Exception {
+		JSONSchemaParser parser = new JSONSchemaParser(orderSchema());
+		ContainerFactory factory = new ContainerFactory(){
+			public Map createObjectContainer(){
+				return new LinkedHashMap();
+			}
+
+			public List creatArrayContainer(){
+				return null;
+			}
+		};
+		Map map = parser.parse(new StringReader("{\"x\":1,\"customer\":{\"vip\":false},\"id\":1,\"note\":null,\"tags\":{\"t\":[]}}"), factory);
+		assertEquals("{customer={vip=false}, id=1, note=null, tags={t=[]}}", map.toString());
+		assertTrue(map instanceof LinkedHashMap);
+	}
+
+	public void testErrors() throws Exception {
+		JSONSchemaParser parser = new JSONSchemaParser(orderSchema());
+		String[] invalid = {"[]", "{\"id\":\"1\"}", "{\"price\":true}", "{\"customer\":[]}", "{\"note\":1}", "{\"id\":1} {}", "{\"id\":1", "{1:2}",
+			"{\"id\":1.5}", "{\"id\":9223372036854775808}", "{\"id\":1e19}"};
+		for(int i = 0; i < invalid.length; i++){
+			try{
+				parser.parse(invalid[i]);
+				fail(invalid[i]);
+			}
+			catch(ParseException pe){
+				assertEquals(invalid[i], ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+			}
+		}
+		assertEquals(1.0, parser.parse("{\"price\":1}").getDouble(1), 0);
+		assertEquals(100, parser.parse("{\"id\":1.0e2}").getLong(0));
+		assertEquals(Long.MIN_VALUE, parser.parse("{\"id\":-9223372036854775808}").getLong(0));
+	}
+
+	public void testManyMembers() throws Exception {
+		JSONSchema schema = new JSONSchema();
+		StringBuffer text = new StringBuffer("{");
+		for(int i = 0; i < 300; i++){
+			schema.add("member" + i, JSONSchema.LONG);
+			text.append(i == 0 ? "" : ",").append("\"member").append(i).append("\":").append(i);
+		}
+		text.append(",\"member300\":1,\"\":2}");
+		JSONRecord record = new JSONSchemaParser(schema).parse(text.toString());
+		for(int i = 0; i < 300; i++)
+			assertEquals(i, record.getLong(schema.indexOf("member" + i)));
+	}
+}
@@ -0,0 +1,85 @@
+package org.json.simple.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import junit.framework.TestCase;
+
+public class ParallelJSONLinesParserTest extends TestCase {
+
+	public void testParse() throws Exception {
+		StringBuffer sb = new StringBuffer();
+		for(int i = 0; i < 5000; i++){
+			sb.append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"\u4e2d\"]}\n");
+			if(i % 100 == 0)
+				sb.append("\r\n");
+		}
+		byte[] b = sb.toString().getBytes("UTF-8");
+		Path file = Files.createTempFile("json-simple", ".jsonl");
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try{
+			Files.write(file, b);
+			ParallelJSONLinesParser parser = new ParallelJSONLinesParser(pool);
+			parser.setChunkSize(1000);
+
+			final List ordered = new ArrayList();
+			parser.parse(file, new Consumer<Object>(){
+				public void accept(Object record){
+					ordered.add(record);
+				}
+			}, true);
+			assertEquals(5000, ordered.size());
+			for(int i = 0; i < ordered.size(); i++)
+				assertEquals(new Long(i), ((Map)ordered.get(i)).get("id"));
+
+			// chunks that straddle the mapped windows
+			parser.mapWindowSize = 4096;
+			ordered.clear();
+			parser.parse(file, new Consumer<Object>(){
+				public void accept(Object record){
+					ordered.add(record);
+				}
+			}, true);
+			assertEquals(5000, ordered.size());
+			for(int i = 0; i < ordered.size(); i++)
+				assertEquals(new Long(i), ((Map)ordered.get(i)).get("id"));
+
+			final List unordered = Collections.synchronizedList(new ArrayList());
+			parser.parse(ByteBuffer.wrap(b), new Consumer<Object>(){
+				public void accept(Object record){
+					unordered.add(((Map)record).get("id"));
+				}
+			}, false);
+			assertEquals(5000, unordered.size());
+			assertEquals(5000, new java.util.HashSet(unordered).size());
+
+			b = "[1]\n[2]\n[3,]]\n[4]\n".getBytes("UTF-8");
+			final List records = new ArrayList();
+			parser.setChunkSize(4);
+			try{
+				parser.parse(ByteBuffer.wrap(b), new Consumer<Object>(){
+					public void accept(Object record){
+						records.add(record);
+					}
+				}, true);
+				fail();
+			}
+			catch(ParseException pe){
+				assertEquals(ParseException.ERROR_UNEXPECTED_TOKEN, pe.getErrorType());
+				assertEquals(12, pe.getPosition());
+			}
+			assertEquals(2, records.size());
+		}
+		finally{
+			pool.shutdown();
+			Files.delete(file);
+		}
+	}
+}
@@ -77,4 +77,47 @@ public class YylexTest extends TestCase {
 		assertTrue(err!=null);
 	}
 
+
+	public void testBufferBoundaries() throws Exception{
+		StringBuffer sb = new StringBuffer();
+		sb.append('[');
+		for(int i = 0; i < 5000; i++){
+			sb.append("\"a\\u0041\\n\",").append(-1234567890123L).append(",1.5e3,true,null,");
+		}
+		sb.append("false]");
+		Yylex lexer = new Yylex(new StringReader(sb.toString()));
+		assertEquals(Yytoken.TYPE_LEFT_SQUARE, lexer.yylex().type);
+		for(int i = 0; i < 5000; i++){
+			assertEquals("aA\n", lexer.yylex().value);
+			assertEquals(Yytoken.TYPE_COMMA, lexer.yylex().type);
+			assertEquals(new Long(-1234567890123L), lexer.yylex().value);
+			assertEquals(Yytoken.TYPE_COMMA, lexer.yylex().type);
+			assertEquals(new Double(1500), lexer.yylex().value);
+			assertEquals(Yytoken.TYPE_COMMA, lexer.yylex().type);
+			assertEquals(Boolean.TRUE, lexer.yylex().value);
+			assertEquals(Yytoken.TYPE_COMMA, lexer.yylex().type);
+			Yytoken token = lexer.yylex();
+			assertEquals(Yytoken.TYPE_VALUE, token.type);
+			assertNull(token.value);
+			assertEquals(Yytoken.TYPE_COMMA, lexer.yylex().type);
+		}
+		assertEquals(Boolean.FALSE, lexer.yylex().value);
+		assertEquals(Yytoken.TYPE_RIGHT_SQUARE, lexer.yylex().type);
+		assertEquals(Yytoken.TYPE_EOF, lexer.yylex().type);
+		assertEquals(sb.length(), lexer.getPosition());
+		
+		lexer = new Yylex(new StringReader("\"a\\x\\u12\" 1. "));
+		assertEquals("a\\x\\u12", lexer.yylex().value);
+		assertEquals(new Long(1), lexer.yylex().value);
+		try{
+			lexer.yylex();
+			fail();
+		}
+		catch(ParseException e){
+			assertEquals(ParseException.ERROR_UNEXPECTED_CHAR, e.getErrorType());
+			assertEquals(new Character('.'), e.getUnexpectedObject());
+			assertEquals(11, e.getPosition());
+		}
+	}
+
 }